@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.benchmark;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller exercised by the benchmarks. Each mapping isolates one part of the dispatch path: message conversion, view
+ * rendering, or exception resolution.
+ *
+ */
+@Controller
+public class BenchmarkController {
+
+	@RequestMapping("/body")
+	public @ResponseBody String body() {
+		return "body";
+	}
+
+	@RequestMapping("/person/{id}")
+	public @ResponseBody String person(@PathVariable String id, @RequestParam(required=false) String format) {
+		return id;
+	}
+
+	@RequestMapping("/view")
+	public String view(Model model) {
+		model.addAttribute("name", "value");
+		return "view";
+	}
+
+	@RequestMapping("/exception")
+	public void exception() {
+		throw new IllegalStateException("benchmark");
+	}
+
+	@ExceptionHandler
+	public @ResponseBody String handle(IllegalStateException ex) {
+		return ex.getMessage();
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.benchmark;
+
+import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Measures a single {@code perform(get(...))} round trip through the {@code MockDispatcher} against a standalone setup.
+ * The variants add view rendering, interceptors, and exception resolution in turn, and {@link #mapOnly()} stops after
+ * handler mapping.
+ *
+ * <p>The {@link MockMvc} instances are shared by all benchmark threads, which also makes this usable with {@code -t} to
+ * measure contention.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MockMvcPerformBenchmark {
+
+	private MockMvc mockMvc;
+
+	private MockMvc interceptedMockMvc;
+
+	private MockMvc mapOnlyMockMvc;
+
+	@Setup
+	public void setup() {
+		this.mockMvc = standaloneMvcSetup(new BenchmarkController())
+				.configureFixedViewResolver(new TextView()).build();
+
+		this.interceptedMockMvc = standaloneMvcSetup(new BenchmarkController())
+				.configureFixedViewResolver(new TextView())
+				.addInterceptors(new HandlerInterceptorAdapter() {}, new HandlerInterceptorAdapter() {})
+				.build();
+
+		this.mapOnlyMockMvc = standaloneMvcSetup(new BenchmarkController()).build();
+		this.mapOnlyMockMvc.setMapOnly(true);
+	}
+
+	@Benchmark
+	public MvcResult responseBody() {
+		return this.mockMvc.perform(get("/body")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult responseBodyWithUriVariables() {
+		return this.mockMvc.perform(get("/person/{id}", "42").param("format", "json")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult render() {
+		return this.mockMvc.perform(get("/view")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult renderWithInterceptors() {
+		return this.interceptedMockMvc.perform(get("/view")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult exception() {
+		return this.mockMvc.perform(get("/exception")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult mapOnly() {
+		return this.mapOnlyMockMvc.perform(get("/view")).andReturn();
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.benchmark;
+
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigMvcSetup;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.xmlConfigMvcSetup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.setup.StandaloneMockMvcBuilder;
+import org.springframework.test.web.server.setup.StandaloneMvcInfrastructure;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Measures the cost of building a {@link MockMvc} with each of the setup options in {@code MockMvcBuilders}. Every
+ * invocation creates and refreshes a new application context, so this is the per-test-class setup cost.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MockMvcSetupBenchmark {
+
+	static final String XML_CONFIG_LOCATION =
+			"classpath:org/springframework/test/web/server/benchmark/servlet-context.xml";
+
+	@Benchmark
+	public MockMvc standaloneMvcSetup(ContextHolder contextHolder) {
+		return new ContextCapturingStandaloneMockMvcBuilder(contextHolder, new BenchmarkController()).build();
+	}
+
+	@Benchmark
+	public MockMvc standaloneMvcSetupWithSharedInfrastructure(SharedInfrastructure sharedInfrastructure) {
+		return standaloneMvcSetup(new BenchmarkController())
+				.setSharedInfrastructure(sharedInfrastructure.infrastructure).build();
+	}
+
+	@Benchmark
+	public MockMvc xmlConfigMvcSetup(ContextHolder contextHolder) {
+		return xmlConfigMvcSetup(XML_CONFIG_LOCATION).applyInitializers(contextHolder).build();
+	}
+
+	@Benchmark
+	public MockMvc annotationConfigMvcSetup(ContextHolder contextHolder) {
+		return annotationConfigMvcSetup(BenchmarkConfiguration.class).applyInitializers(contextHolder).build();
+	}
+
+	@State(Scope.Benchmark)
+	public static class SharedInfrastructure {
+
+		private final StandaloneMvcInfrastructure infrastructure = new StandaloneMvcInfrastructure();
+
+		@TearDown(Level.Trial)
+		public void close() {
+			infrastructure.close();
+		}
+	}
+
+	/**
+	 * Captures the application context created by an invocation and closes it afterwards, outside the measured
+	 * time, so that contexts from earlier invocations do not add heap and GC pressure to later ones.
+	 */
+	@State(Scope.Thread)
+	public static class ContextHolder implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
+
+		private ConfigurableWebApplicationContext applicationContext;
+
+		public void initialize(ConfigurableWebApplicationContext applicationContext) {
+			this.applicationContext = applicationContext;
+		}
+
+		@TearDown(Level.Invocation)
+		public void closeApplicationContext() {
+			if (applicationContext != null) {
+				applicationContext.close();
+				applicationContext = null;
+			}
+		}
+	}
+
+	/**
+	 * Passes the empty application context that a standalone build creates to a {@link ContextHolder}.
+	 */
+	private static class ContextCapturingStandaloneMockMvcBuilder extends StandaloneMockMvcBuilder {
+
+		private final ContextHolder contextHolder;
+
+		public ContextCapturingStandaloneMockMvcBuilder(ContextHolder contextHolder, Object... controllers) {
+			super(controllers);
+			this.contextHolder = contextHolder;
+		}
+
+		@Override
+		protected WebApplicationContext initApplicationContext() {
+			WebApplicationContext applicationContext = super.initApplicationContext();
+			contextHolder.initialize((ConfigurableWebApplicationContext) applicationContext);
+			return applicationContext;
+		}
+	}
+
+}
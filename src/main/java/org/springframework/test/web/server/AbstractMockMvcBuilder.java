@@ -16,11 +16,21 @@
 
 package org.springframework.test.web.server;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.servlet.ServletContext;
 
+import org.springframework.util.Assert;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
@@ -31,9 +41,15 @@ import org.springframework.web.servlet.ViewResolver;
 
 /**
  * A base class that supports assembling an {@link MvcSetup} to build a {@link MockMvc} instance.
+ * 
+ * @param <B> the type of the concrete builder, returned by the configuration methods of this class so that 
+ * they can be chained with those of the concrete builder
  *
  */
-public abstract class AbstractMockMvcBuilder {
+public abstract class AbstractMockMvcBuilder<B extends AbstractMockMvcBuilder<B>> {
+
+	/** The number of {@code init*} methods run after the application context is initialized. */
+	private static final int INIT_STEP_COUNT = 6;
 
 	private WebApplicationContext applicationContext;
 
@@ -49,29 +65,292 @@ public abstract class AbstractMockMvcBuilder {
 
 	private LocaleResolver localeResolver;
 
+	private final List<MockMvcListener> listeners = new ArrayList<MockMvcListener>();
+
+	private int handlerLookupCacheSize;
+
+	private int handlerAdapterCacheSize;
+
+	private int viewCacheSize;
+
+	private Class<?>[] dynamicViewResolverTypes;
+
+	private boolean parallelInitialization;
+
+	private ExecutorService initializationExecutor;
+
+	private boolean startupReportEnabled;
+
+	private Map<String, Long> stepTimes;
+
+	/**
+	 * Register listeners to be notified of every request performed through the resulting {@link MockMvc}.
+	 */
+	public B addListeners(MockMvcListener... listeners) {
+		this.listeners.addAll(Arrays.asList(listeners));
+		return self();
+	}
+
+	/**
+	 * Cache the handler each distinct request is mapped to, evicting the least recently used entries beyond 
+	 * the given number of requests. Worthwhile when the same requests are performed repeatedly, e.g. in a 
+	 * load test, against a setup with many request mappings. Requests are distinguished by method, URI, 
+	 * parameters, and headers, so mappings must not depend on other request state.
+	 */
+	public B enableHandlerLookupCache(int maxSize) {
+		this.handlerLookupCacheSize = maxSize;
+		return self();
+	}
+
+	/**
+	 * Cache the handler adapter chosen for each handler class, or for each method of annotated controllers, 
+	 * evicting the least recently used entries beyond the given number of handlers. Saves asking every 
+	 * adapter whether it supports the handler on each request. Only suitable if the {@code supports} methods 
+	 * of all handler adapters decide by the handler class or handler method alone, which is the case for 
+	 * the adapters of Spring MVC.
+	 */
+	public B enableHandlerAdapterCache(int maxSize) {
+		this.handlerAdapterCacheSize = maxSize;
+		return self();
+	}
+
+	/**
+	 * Cache the views returned by view resolvers by view name and locale, evicting the least recently used 
+	 * entries beyond the given number of views. Useful for view resolvers that do not cache views themselves.
+	 * The {@code ContentNegotiatingViewResolver} is never cached since its result depends on the request.
+	 * @param maxSize the maximum number of cached views
+	 * @param dynamicResolverTypes types of additional view resolvers that should not be cached
+	 */
+	public B enableViewCache(int maxSize, Class<?>... dynamicResolverTypes) {
+		this.viewCacheSize = maxSize;
+		this.dynamicViewResolverTypes = dynamicResolverTypes;
+		return self();
+	}
+
+	/**
+	 * Initialize handler mappings, handler adapters, exception resolvers, view resolvers, the view name 
+	 * translator, and the locale resolver concurrently once the application context is ready, on a thread 
+	 * pool with at most one thread per component and available processor. The pool is shut down when 
+	 * {@link #build()} returns. Subclasses must make their {@code init*} methods independent of each other 
+	 * in this mode, which is the case for the builders in this project.
+	 */
+	public B initializeInParallel() {
+		this.parallelInitialization = true;
+		return self();
+	}
+
+	/**
+	 * Variant of {@link #initializeInParallel()} that runs the {@code init*} methods on the given executor, 
+	 * e.g. to share one pool across many builds. The executor is not shut down.
+	 */
+	public B initializeInParallel(ExecutorService executor) {
+		Assert.notNull(executor, "ExecutorService is required");
+		this.parallelInitialization = true;
+		this.initializationExecutor = executor;
+		return self();
+	}
+
+	/**
+	 * Record how long each step of {@link #build()} takes and, if the builder refreshes the application 
+	 * context, how long each bean takes to create. The result is available through 
+	 * {@link MockMvc#getStartupReport()}.
+	 */
+	public B recordStartupReport() {
+		this.startupReportEnabled = true;
+		return self();
+	}
+
+	/**
+	 * Whether {@link #recordStartupReport()} was called, in which case subclasses that refresh the 
+	 * application context should collect bean creation times.
+	 */
+	protected boolean isStartupReportEnabled() {
+		return startupReportEnabled;
+	}
+
+	/**
+	 * Return the time taken to create each bean keyed by bean name, for the {@link StartupReport}. 
+	 * This implementation returns an empty map.
+	 */
+	protected Map<String, Long> getBeanCreationTimes() {
+		return Collections.emptyMap();
+	}
+
+	@SuppressWarnings("unchecked")
+	private B self() {
+		return (B) this;
+	}
+
 	public final MockMvc build() {
 
+		long startTime = System.nanoTime();
+		stepTimes = startupReportEnabled ? new ConcurrentHashMap<String, Long>() : null;
+
 		applicationContext = initApplicationContext();
+		recordStep("initApplicationContext", startTime);
 		ServletContext servletContext = applicationContext.getServletContext();
 
 		String name = WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE;
 		servletContext.setAttribute(name, applicationContext);
 
-		handlerMappings = Collections.unmodifiableList(initHandlerMappings());
-		handlerAdapters = Collections.unmodifiableList(initHandlerAdapters());
-		exceptionResolvers = Collections.unmodifiableList(initHandlerExceptionResolvers());
-		viewResolvers = Collections.unmodifiableList(initViewResolvers());
-		viewNameTranslator = initViewNameTranslator();
-		localeResolver = initLocaleResolver();
+		if (parallelInitialization) {
+			initComponentsInParallel();
+		}
+		else {
+			long stepStartTime = System.nanoTime();
+			handlerMappings = Collections.unmodifiableList(initHandlerMappings());
+			stepStartTime = recordStep("initHandlerMappings", stepStartTime);
+			handlerAdapters = Collections.unmodifiableList(initHandlerAdapters());
+			stepStartTime = recordStep("initHandlerAdapters", stepStartTime);
+			exceptionResolvers = Collections.unmodifiableList(initHandlerExceptionResolvers());
+			stepStartTime = recordStep("initHandlerExceptionResolvers", stepStartTime);
+			viewResolvers = Collections.unmodifiableList(initViewResolvers());
+			stepStartTime = recordStep("initViewResolvers", stepStartTime);
+			viewNameTranslator = initViewNameTranslator();
+			stepStartTime = recordStep("initViewNameTranslator", stepStartTime);
+			localeResolver = initLocaleResolver();
+			recordStep("initLocaleResolver", stepStartTime);
+		}
 		
 		MvcSetup mvcSetup = createMvcSetup();
-		MockDispatcher mockDispatcher = new MockDispatcher(mvcSetup);
+		MockDispatcher mockDispatcher = new MockDispatcher(mvcSetup, listeners);
+		if (handlerLookupCacheSize > 0) {
+			mockDispatcher.setHandlerLookupCache(new HandlerLookupCache(handlerLookupCacheSize));
+		}
+		if (handlerAdapterCacheSize > 0) {
+			mockDispatcher.setHandlerAdapterCache(
+					new ConcurrentLruCache<Object, HandlerAdapter>(handlerAdapterCacheSize));
+		}
+		if (viewCacheSize > 0) {
+			mockDispatcher.setViewResolverCache(new ViewResolverCache(viewCacheSize, dynamicViewResolverTypes));
+		}
 		
-		return new MockMvc(servletContext, mockDispatcher);
+		MockMvc mockMvc = new MockMvc(servletContext, mockDispatcher);
+		if (startupReportEnabled) {
+			long totalTime = System.nanoTime() - startTime;
+			mockMvc.setStartupReport(new StartupReport(totalTime, stepTimes, getBeanCreationTimes()));
+		}
+		return mockMvc;
+	}
+
+	/**
+	 * Record the time elapsed since the given start time for the startup report, if enabled.
+	 * @return the current time, to be used as the start time of the next step
+	 */
+	private long recordStep(String step, long startTime) {
+		long now = System.nanoTime();
+		if (stepTimes != null) {
+			stepTimes.put(step, now - startTime);
+		}
+		return now;
+	}
+
+	private void initComponentsInParallel() {
+		ExecutorService executor = this.initializationExecutor;
+		if (executor == null) {
+			int poolSize = Math.min(INIT_STEP_COUNT, Runtime.getRuntime().availableProcessors());
+			executor = Executors.newFixedThreadPool(poolSize);
+		}
+		try {
+			Future<List<? extends HandlerMapping>> mappingsFuture = 
+				executor.submit(new Callable<List<? extends HandlerMapping>>() {
+					public List<? extends HandlerMapping> call() {
+						long stepStartTime = System.nanoTime();
+						List<? extends HandlerMapping> result = initHandlerMappings();
+						recordStep("initHandlerMappings", stepStartTime);
+						return result;
+					}
+				});
+			Future<List<? extends HandlerAdapter>> adaptersFuture = 
+				executor.submit(new Callable<List<? extends HandlerAdapter>>() {
+					public List<? extends HandlerAdapter> call() {
+						long stepStartTime = System.nanoTime();
+						List<? extends HandlerAdapter> result = initHandlerAdapters();
+						recordStep("initHandlerAdapters", stepStartTime);
+						return result;
+					}
+				});
+			Future<List<? extends HandlerExceptionResolver>> exceptionResolversFuture = 
+				executor.submit(new Callable<List<? extends HandlerExceptionResolver>>() {
+					public List<? extends HandlerExceptionResolver> call() {
+						long stepStartTime = System.nanoTime();
+						List<? extends HandlerExceptionResolver> result = initHandlerExceptionResolvers();
+						recordStep("initHandlerExceptionResolvers", stepStartTime);
+						return result;
+					}
+				});
+			Future<List<? extends ViewResolver>> viewResolversFuture = 
+				executor.submit(new Callable<List<? extends ViewResolver>>() {
+					public List<? extends ViewResolver> call() {
+						long stepStartTime = System.nanoTime();
+						List<? extends ViewResolver> result = initViewResolvers();
+						recordStep("initViewResolvers", stepStartTime);
+						return result;
+					}
+				});
+			Future<RequestToViewNameTranslator> viewNameTranslatorFuture = 
+				executor.submit(new Callable<RequestToViewNameTranslator>() {
+					public RequestToViewNameTranslator call() {
+						long stepStartTime = System.nanoTime();
+						RequestToViewNameTranslator result = initViewNameTranslator();
+						recordStep("initViewNameTranslator", stepStartTime);
+						return result;
+					}
+				});
+			Future<LocaleResolver> localeResolverFuture = 
+				executor.submit(new Callable<LocaleResolver>() {
+					public LocaleResolver call() {
+						long stepStartTime = System.nanoTime();
+						LocaleResolver result = initLocaleResolver();
+						recordStep("initLocaleResolver", stepStartTime);
+						return result;
+					}
+				});
+
+			handlerMappings = Collections.unmodifiableList(getInitResult(mappingsFuture));
+			handlerAdapters = Collections.unmodifiableList(getInitResult(adaptersFuture));
+			exceptionResolvers = Collections.unmodifiableList(getInitResult(exceptionResolversFuture));
+			viewResolvers = Collections.unmodifiableList(getInitResult(viewResolversFuture));
+			viewNameTranslator = getInitResult(viewNameTranslatorFuture);
+			localeResolver = getInitResult(localeResolverFuture);
+		}
+		finally {
+			if (this.initializationExecutor == null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private static <T> T getInitResult(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while initializing Spring MVC components", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException("Failed to initialize Spring MVC components", cause);
+		}
 	}
 
 	protected abstract WebApplicationContext initApplicationContext();
 
+	/**
+	 * Return the context returned from {@link #initApplicationContext()}, for use in the remaining 
+	 * {@code init*} methods.
+	 */
+	protected WebApplicationContext getApplicationContext() {
+		return applicationContext;
+	}
+
 	protected abstract List<? extends HandlerMapping> initHandlerMappings();
 
 	protected abstract List<? extends HandlerAdapter> initHandlerAdapters();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the number of bytes allocated by the current thread through the HotSpot extension of the
+ * {@link java.lang.management.ThreadMXBean}. On JVMs that do not provide the extension, including Java 5, or 
+ * where allocated memory measurement is disabled, {@link #getCurrentThreadAllocatedBytes()} returns -1.
+ * 
+ * <p>The extension is accessed reflectively since {@code com.sun.management.ThreadMXBean} is neither part of 
+ * the Java 5 API this project is compiled against nor available on every JVM. Each reading boxes its argument 
+ * and result, which adds a small constant number of bytes to every measurement.
+ * 
+ */
+final class AllocationCounter {
+
+	private static final String SUN_THREAD_MX_BEAN_CLASS_NAME = "com.sun.management.ThreadMXBean";
+
+	private static final Object threadMXBean = ManagementFactory.getThreadMXBean();
+
+	private static final Method getThreadAllocatedBytesMethod = initGetThreadAllocatedBytesMethod();
+
+	private AllocationCounter() {
+	}
+
+	private static Method initGetThreadAllocatedBytesMethod() {
+		try {
+			Class<?> beanType = Class.forName(SUN_THREAD_MX_BEAN_CLASS_NAME, true, 
+					AllocationCounter.class.getClassLoader());
+			if (!beanType.isInstance(threadMXBean)) {
+				return null;
+			}
+			Method supportedMethod = beanType.getMethod("isThreadAllocatedMemorySupported");
+			if (!(Boolean) supportedMethod.invoke(threadMXBean)) {
+				return null;
+			}
+			Method enabledMethod = beanType.getMethod("isThreadAllocatedMemoryEnabled");
+			if (!(Boolean) enabledMethod.invoke(threadMXBean)) {
+				beanType.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadMXBean, true);
+			}
+			return beanType.getMethod("getThreadAllocatedBytes", long.class);
+		}
+		catch (ClassNotFoundException ex) {
+			// com.sun.management is not available on this JVM
+			return null;
+		}
+		catch (NoSuchMethodException ex) {
+			// e.g. a Java 6 JVM prior to update 25
+			return null;
+		}
+		catch (LinkageError error) {
+			return null;
+		}
+		catch (Exception ex) {
+			// e.g. SecurityException or UnsupportedOperationException thrown by the bean
+			return null;
+		}
+	}
+
+	/**
+	 * Whether allocation measurement is available on this JVM.
+	 */
+	public static boolean isSupported() {
+		return (getThreadAllocatedBytesMethod != null);
+	}
+
+	/**
+	 * Return the total number of bytes allocated by the current thread so far, or -1 if not supported.
+	 */
+	public static long getCurrentThreadAllocatedBytes() {
+		if (getThreadAllocatedBytesMethod == null) {
+			return -1;
+		}
+		try {
+			return (Long) getThreadAllocatedBytesMethod.invoke(threadMXBean, Thread.currentThread().getId());
+		}
+		catch (Exception ex) {
+			return -1;
+		}
+	}
+
+}
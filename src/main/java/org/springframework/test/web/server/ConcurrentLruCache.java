@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * A size-bounded cache with least-recently-used eviction that may be accessed concurrently. Entries are 
+ * spread over a number of segments, each an access-ordered {@link LinkedHashMap} guarded by its own lock, 
+ * so that concurrent lookups for different keys rarely contend. Eviction is per segment and therefore 
+ * approximates LRU order across the whole cache.
+ * 
+ * <p>Neither keys nor values may be {@code null}.
+ * 
+ * @ThreadSafe
+ */
+final class ConcurrentLruCache<K, V> {
+
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment<K, V>[] segments;
+
+	private final int segmentMask;
+
+	@SuppressWarnings("unchecked")
+	ConcurrentLruCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "Cache size must be greater than 0");
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxSize));
+		int segmentCapacity = (maxSize + segmentCount - 1) / segmentCount;
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment<K, V>(segmentCapacity);
+		}
+		this.segmentMask = segmentCount - 1;
+	}
+
+	public V get(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.get(key);
+		}
+	}
+
+	public void put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	private Segment<K, V> segmentFor(K key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & segmentMask];
+	}
+
+	@SuppressWarnings("serial")
+	private static class Segment<K, V> extends LinkedHashMap<K, V> {
+
+		private final int capacity;
+
+		public Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > capacity;
+		}
+	}
+
+}
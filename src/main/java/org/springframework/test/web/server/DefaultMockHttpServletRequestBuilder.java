@@ -20,6 +20,7 @@ import java.net.URI;
 import java.security.Principal;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import javax.servlet.ServletContext;
@@ -28,6 +29,7 @@ import javax.servlet.http.Cookie;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -42,6 +44,8 @@ public class DefaultMockHttpServletRequestBuilder implements MockHttpServletRequ
 
     private final HttpMethod method;
 
+    private final String urlTemplate;
+
     private final MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
 
     private final MultiValueMap<String, Object> headers = new LinkedMultiValueMap<String, Object>();
@@ -64,8 +68,26 @@ public class DefaultMockHttpServletRequestBuilder implements MockHttpServletRequ
 
     /** Use methods on {@link MockMvc} to obtain a new instance. */
     DefaultMockHttpServletRequestBuilder(URI uri, HttpMethod method) {
+        this(uri, method, uri.toString());
+    }
+
+    DefaultMockHttpServletRequestBuilder(URI uri, HttpMethod method, String urlTemplate) {
         this.uri = uri;
         this.method = method;
+        this.urlTemplate = urlTemplate;
+    }
+
+    /** Return the HTTP method of the request. */
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Return the URL template the request URI was expanded from, e.g. "/hotels/{id}". Useful to group
+     * requests to the same endpoint. Returns the request URI if the builder was not created from a template.
+     */
+    public String getUrlTemplate() {
+        return urlTemplate;
     }
 
     public DefaultMockHttpServletRequestBuilder param(String name, String value, String... values) {
@@ -175,6 +197,25 @@ public class DefaultMockHttpServletRequestBuilder implements MockHttpServletRequ
         return request;
     }
 
+    /**
+     * Create an immutable {@link MockHttpServletRequestPrototype} from the current state of this builder. The
+     * prototype builds the same requests at a lower cost per request, may be shared by threads, and provides
+     * methods to vary the URI variables, parameters, or body per request. Later changes to this builder do not
+     * affect the prototype.
+     */
+    public MockHttpServletRequestPrototype freeze() {
+        return new MockHttpServletRequestPrototype(method, urlTemplate, uri, parameters, headers, contentType,
+                requestBody, cookies, locale, characterEncoding, attributes, sessionAttributes, principal,
+                getMultipartFiles());
+    }
+
+    /**
+     * Return the files of a multipart request, or {@code null} if this is not a multipart request.
+     */
+    List<MockMultipartFile> getMultipartFiles() {
+        return null;
+    }
+
     /**
      * Creates a new {@link MockHttpServletRequest} based on the given {@link ServletContext}. Can be overridden in
      * subclasses.
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * An immutable {@link MvcResult} created by the {@link MockDispatcher} at the end of a dispatch.
+ * 
+ */
+class DefaultMvcResult implements MvcResult {
+
+	private final MockHttpServletRequest request;
+
+	private final MockHttpServletResponse response;
+
+	private final Object handler;
+
+	private final HandlerInterceptor[] interceptors;
+
+	private final Exception handlerException;
+
+	private final ModelAndView mav;
+
+	private final DispatchTimings timings;
+
+	private final long allocatedBytes;
+
+	private volatile String responseBody;
+
+	private volatile Map<String, Object> requestHeaders;
+
+	private volatile Map<String, Object> requestAttributes;
+
+	private volatile Map<String, Object> sessionAttributes;
+
+	private volatile Map<String, Object> responseHeaders;
+
+	private volatile Map<String, Object> responseCookies;
+
+	DefaultMvcResult(MockHttpServletRequest request, 
+					 MockHttpServletResponse response, 
+					 Object handler, 
+					 HandlerInterceptor[] interceptors, 
+					 Exception handlerException, 
+					 ModelAndView mav,
+					 DispatchTimings timings,
+					 long allocatedBytes) {
+		this.request = request;
+		this.response = response;
+		this.handler = handler;
+		this.interceptors = interceptors;
+		this.handlerException = handlerException;
+		this.mav = mav;
+		this.timings = timings;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public MockHttpServletRequest getRequest() {
+		return request;
+	}
+
+	public MockHttpServletResponse getResponse() {
+		return response;
+	}
+
+	public Object getHandler() {
+		return handler;
+	}
+
+	public HandlerInterceptor[] getInterceptors() {
+		return interceptors;
+	}
+
+	public Exception getHandlerException() {
+		return handlerException;
+	}
+
+	public ModelAndView getModelAndView() {
+		return mav;
+	}
+
+	public String getResponseBody() throws UnsupportedEncodingException {
+		String body = this.responseBody;
+		if (body == null) {
+			body = response.getContentAsString();
+			this.responseBody = body;
+		}
+		return body;
+	}
+
+	public Map<String, Object> getRequestHeaders() {
+		Map<String, Object> map = this.requestHeaders;
+		if (map == null) {
+			map = new LinkedHashMap<String, Object>();
+			for (Enumeration<?> names = request.getHeaderNames(); names.hasMoreElements(); ) {
+				String name = (String) names.nextElement();
+				map.put(name, request.getHeader(name));
+			}
+			map = Collections.unmodifiableMap(map);
+			this.requestHeaders = map;
+		}
+		return map;
+	}
+
+	public Map<String, Object> getRequestAttributes() {
+		Map<String, Object> map = this.requestAttributes;
+		if (map == null) {
+			map = new LinkedHashMap<String, Object>();
+			for (Enumeration<?> names = request.getAttributeNames(); names.hasMoreElements(); ) {
+				String name = (String) names.nextElement();
+				map.put(name, request.getAttribute(name));
+			}
+			map = Collections.unmodifiableMap(map);
+			this.requestAttributes = map;
+		}
+		return map;
+	}
+
+	public Map<String, Object> getSessionAttributes() {
+		Map<String, Object> map = this.sessionAttributes;
+		if (map == null) {
+			HttpSession session = request.getSession();
+			map = new LinkedHashMap<String, Object>();
+			for (Enumeration<?> names = session.getAttributeNames(); names.hasMoreElements(); ) {
+				String name = (String) names.nextElement();
+				map.put(name, session.getAttribute(name));
+			}
+			map = Collections.unmodifiableMap(map);
+			this.sessionAttributes = map;
+		}
+		return map;
+	}
+
+	public Map<String, Object> getResponseHeaders() {
+		Map<String, Object> map = this.responseHeaders;
+		if (map == null) {
+			map = new LinkedHashMap<String, Object>();
+			for (String name : response.getHeaderNames()) {
+				map.put(name, response.getHeader(name));
+			}
+			map = Collections.unmodifiableMap(map);
+			this.responseHeaders = map;
+		}
+		return map;
+	}
+
+	public Map<String, Object> getResponseCookies() {
+		Map<String, Object> map = this.responseCookies;
+		if (map == null) {
+			map = new LinkedHashMap<String, Object>();
+			for (Cookie cookie : response.getCookies()) {
+				if (!map.containsKey(cookie.getName())) {
+					map.put(cookie.getName(), cookie.getValue());
+				}
+			}
+			map = Collections.unmodifiableMap(map);
+			this.responseCookies = map;
+		}
+		return map;
+	}
+
+	public DispatchTimings getTimings() {
+		return timings;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+/**
+ * The stages of request processing in the {@link MockDispatcher} timed separately in {@link DispatchTimings}.
+ * 
+ */
+public enum DispatchPhase {
+
+	/** Finding the handler and interceptors for the request through the configured HandlerMappings. */
+	HANDLER_MAPPING,
+
+	/** Invoking {@code preHandle} on the mapped HandlerInterceptors. */
+	INTERCEPTOR_PRE_HANDLE,
+
+	/** Selecting the HandlerAdapter that supports the mapped handler. */
+	HANDLER_ADAPTER_LOOKUP,
+
+	/** Invoking the handler through the selected HandlerAdapter, including data binding. */
+	HANDLER_INVOCATION,
+
+	/** Invoking {@code postHandle} on the mapped HandlerInterceptors. */
+	INTERCEPTOR_POST_HANDLE,
+
+	/** Resolving an exception raised by the handler or its interceptors through HandlerExceptionResolvers. */
+	EXCEPTION_RESOLUTION,
+
+	/** Translating the request into a default view name. */
+	VIEW_NAME_TRANSLATION,
+
+	/** Resolving the view name into a View through the configured ViewResolvers. */
+	VIEW_RESOLUTION,
+
+	/** Rendering the View. */
+	VIEW_RENDERING
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Nanosecond timings for the {@link DispatchPhase}s of a request processed by the {@link MockDispatcher}. 
+ * Phases that were not reached, e.g. view rendering for an {@code @ResponseBody} method, have a time of 0.
+ * 
+ * <p>Timings for individual interceptors are available by their index in {@link MvcResult#getInterceptors()}.
+ * 
+ */
+public class DispatchTimings {
+
+	private final long totalTime;
+
+	private final long[] phaseTimes;
+
+	private final HandlerInterceptor[] interceptors;
+
+	private final long[] preHandleTimes;
+
+	private final long[] postHandleTimes;
+
+	DispatchTimings(long totalTime, long[] phaseTimes, HandlerInterceptor[] interceptors, 
+					long[] preHandleTimes, long[] postHandleTimes) {
+		this.totalTime = totalTime;
+		this.phaseTimes = phaseTimes;
+		this.interceptors = interceptors;
+		this.preHandleTimes = preHandleTimes;
+		this.postHandleTimes = postHandleTimes;
+	}
+
+	/**
+	 * Return the time taken to process the request from start to finish.
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Return the time spent in the given phase.
+	 */
+	public long getPhaseTime(DispatchPhase phase) {
+		return phaseTimes[phase.ordinal()];
+	}
+
+	/**
+	 * Return the time spent in {@code preHandle} of the interceptor at the given index.
+	 */
+	public long getPreHandleTime(int interceptorIndex) {
+		assertInterceptorIndex(interceptorIndex);
+		return preHandleTimes[interceptorIndex];
+	}
+
+	/**
+	 * Return the time spent in {@code postHandle} of the interceptor at the given index.
+	 */
+	public long getPostHandleTime(int interceptorIndex) {
+		assertInterceptorIndex(interceptorIndex);
+		return postHandleTimes[interceptorIndex];
+	}
+
+	private void assertInterceptorIndex(int index) {
+		int count = (interceptors != null) ? interceptors.length : 0;
+		Assert.isTrue(index >= 0 && index < count, "No interceptor at index " + index + ". Interceptors: " + count);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("total=").append(totalTime).append("ns");
+		for (DispatchPhase phase : DispatchPhase.values()) {
+			sb.append(", ").append(phase.name().toLowerCase()).append("=").append(getPhaseTime(phase)).append("ns");
+		}
+		if (interceptors != null) {
+			for (int i = 0; i < interceptors.length; i++) {
+				sb.append(", ").append(interceptors[i].getClass().getSimpleName());
+				sb.append("[preHandle=").append(preHandleTimes[i]).append("ns");
+				sb.append(", postHandle=").append(postHandleTimes[i]).append("ns]");
+			}
+		}
+		return sb.toString();
+	}
+
+}
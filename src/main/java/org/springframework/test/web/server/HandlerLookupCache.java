@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Caches the outcome of walking the {@link HandlerMapping}s for a request, including lookups that did not 
+ * match any handler. Requests are considered equivalent if they have the same method, context path, servlet 
+ * path, request URI, parameters, and headers, which covers everything the mapping conditions of Spring MVC 
+ * inspect.
+ * 
+ * <p>Handler mappings expose information such as URI template variables and the best matching pattern as 
+ * request attributes. The attributes set during the original lookup are recorded and set again on every 
+ * request served from the cache.
+ * 
+ * <p>Caching assumes the handler mappings return the same handler for equivalent requests. It is not 
+ * suitable for mappings that depend on other request state such as session or request attributes.
+ * 
+ * @ThreadSafe
+ */
+class HandlerLookupCache {
+
+	private final ConcurrentLruCache<String, HandlerLookup> cache;
+
+	HandlerLookupCache(int maxSize) {
+		this.cache = new ConcurrentLruCache<String, HandlerLookup>(maxSize);
+	}
+
+	/**
+	 * Return the {@link HandlerExecutionChain} for the request from the cache, or look it up in the given 
+	 * mappings and cache the outcome. 
+	 * @return the handler execution chain, or {@code null} if no mapping matched
+	 */
+	public HandlerExecutionChain getHandler(MockHttpServletRequest request, List<HandlerMapping> mappings) 
+			throws Exception {
+		String key = createKey(request);
+		HandlerLookup lookup = cache.get(key);
+		if (lookup != null) {
+			lookup.applyAttributes(request);
+			return lookup.chain;
+		}
+
+		Map<String, Object> attributesBefore = getAttributes(request);
+		HandlerExecutionChain chain = null;
+		for (HandlerMapping mapping : mappings) {
+			chain = mapping.getHandler(request);
+			if (chain != null) {
+				break;
+			}
+		}
+
+		Map<String, Object> addedAttributes = new HashMap<String, Object>();
+		for (Map.Entry<String, Object> entry : getAttributes(request).entrySet()) {
+			if (attributesBefore.get(entry.getKey()) != entry.getValue()) {
+				addedAttributes.put(entry.getKey(), copyIfMap(entry.getValue()));
+			}
+		}
+		cache.put(key, new HandlerLookup(chain, addedAttributes));
+		return chain;
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	private static String createKey(MockHttpServletRequest request) {
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(request.getMethod()).append(' ');
+		sb.append(request.getContextPath()).append('|');
+		sb.append(request.getServletPath()).append('|');
+		sb.append(request.getRequestURI());
+		for (Object entry : request.getParameterMap().entrySet()) {
+			Map.Entry<?, ?> param = (Map.Entry<?, ?>) entry;
+			sb.append('\n').append(param.getKey()).append('=');
+			for (String value : (String[]) param.getValue()) {
+				sb.append(value).append(',');
+			}
+		}
+		for (Enumeration<?> names = request.getHeaderNames(); names.hasMoreElements(); ) {
+			String name = (String) names.nextElement();
+			sb.append('\n').append(name).append(':');
+			for (Enumeration<?> values = request.getHeaders(name); values.hasMoreElements(); ) {
+				sb.append(values.nextElement()).append(',');
+			}
+		}
+		return sb.toString();
+	}
+
+	private static Map<String, Object> getAttributes(MockHttpServletRequest request) {
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		for (Enumeration<?> names = request.getAttributeNames(); names.hasMoreElements(); ) {
+			String name = (String) names.nextElement();
+			attributes.put(name, request.getAttribute(name));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Copy map attributes such as URI template variables so that the cached value is not shared with 
+	 * handlers that modify it.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object copyIfMap(Object value) {
+		return (value instanceof Map) ? new LinkedHashMap<Object, Object>((Map<Object, Object>) value) : value;
+	}
+
+	/**
+	 * The outcome of a handler lookup: the chain, if any, and the request attributes set by the mappings.
+	 */
+	private static class HandlerLookup {
+
+		private final HandlerExecutionChain chain;
+
+		private final Map<String, Object> attributes;
+
+		public HandlerLookup(HandlerExecutionChain chain, Map<String, Object> attributes) {
+			this.chain = chain;
+			this.attributes = attributes;
+		}
+
+		public void applyAttributes(MockHttpServletRequest request) {
+			for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+				request.setAttribute(entry.getKey(), copyIfMap(entry.getValue()));
+			}
+		}
+	}
+
+}
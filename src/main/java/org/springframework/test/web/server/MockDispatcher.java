@@ -18,9 +18,7 @@ package org.springframework.test.web.server;
 
 import static org.springframework.test.web.AssertionErrors.fail;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Locale;
 
@@ -33,6 +31,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.util.Assert;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
@@ -49,12 +48,13 @@ import org.springframework.web.servlet.ViewResolver;
  * but does not always behave in identical ways. For example invoking afterCompletion() on a HandlerInterceptor is 
  * not essential for integration testing since the same method can be unit tested.     
  * 
- * <p>Unlike the DispatcherServlet, the {@link MockDispatcher} is stateful. It records contextual information during 
- * each invocation such as the request and the response, the mapped handler and handler interceptors, and the resulting 
- * ModelAndView. The recorded information may then be matched against application-specific expectations as defined by
- * {@link MvcResultActions}. Previously recorded context is cleared at the start of every dispatch invocation.
+ * <p>Like the DispatcherServlet, the {@link MockDispatcher} is stateless and may process requests concurrently. 
+ * Contextual information such as the request and the response, the mapped handler and handler interceptors, and 
+ * the resulting ModelAndView is recorded separately for each invocation and returned as an immutable 
+ * {@link MvcResult}. The recorded information may then be matched against application-specific expectations 
+ * at any time, regardless of other requests processed in the mean time.
  * 
- * @NotThreadSafe
+ * @ThreadSafe
  */
 public class MockDispatcher {
 	
@@ -62,23 +62,44 @@ public class MockDispatcher {
 	
 	private final MvcSetup mvcSetup;
 
-	private MockHttpServletRequest request;
+	private final MockMvcListener[] listeners;
+
+	private HandlerLookupCache handlerLookupCache;
+
+	private ViewResolverCache viewResolverCache;
+
+	private ConcurrentLruCache<Object, HandlerAdapter> handlerAdapterCache;
 
-	private MockHttpServletResponse response;
-	
-	private Object handler;
-	
-	private HandlerInterceptor[] interceptors;
-	
-	private ModelAndView mav;
-	
-	private Exception handlerException;
-	
 	/**
-	 * Create a {@link MockDispatcher} with the provided {@link MvcSetup}.
+	 * Create a {@link MockDispatcher} with the provided {@link MvcSetup} and {@link MockMvcListener}s to notify.
 	 */
-	MockDispatcher(MvcSetup setup) {
+	MockDispatcher(MvcSetup setup, List<MockMvcListener> listeners) {
 		this.mvcSetup = setup;
+		this.listeners = listeners.toArray(new MockMvcListener[listeners.size()]);
+	}
+
+	/**
+	 * Enable caching of handler lookups. Must be called before the dispatcher processes any requests.
+	 * @see HandlerLookupCache
+	 */
+	void setHandlerLookupCache(HandlerLookupCache handlerLookupCache) {
+		this.handlerLookupCache = handlerLookupCache;
+	}
+
+	/**
+	 * Enable caching of the handler adapter per handler class, or per {@link Method} for {@link HandlerMethod} 
+	 * handlers. Must be called before the dispatcher processes any requests.
+	 */
+	void setHandlerAdapterCache(ConcurrentLruCache<Object, HandlerAdapter> handlerAdapterCache) {
+		this.handlerAdapterCache = handlerAdapterCache;
+	}
+
+	/**
+	 * Enable caching of resolved views. Must be called before the dispatcher processes any requests.
+	 * @see ViewResolverCache
+	 */
+	void setViewResolverCache(ViewResolverCache viewResolverCache) {
+		this.viewResolverCache = viewResolverCache;
 	}
 
 	/**
@@ -86,90 +107,172 @@ public class MockDispatcher {
 	 * The request may be partially processed if mapOnly is {@code true}.
 	 * 
 	 */
-	public MvcResultActions dispatch(MockHttpServletRequest request, MockHttpServletResponse response, boolean mapOnly) {
-		clear();
-		this.request = request;
-		this.response = response;
+	public MvcResult dispatch(MockHttpServletRequest request, MockHttpServletResponse response, boolean mapOnly) {
+		DispatchState state = new DispatchState(request, response);
+		long startAllocatedBytes = AllocationCounter.getCurrentThreadAllocatedBytes();
+		long startTime = System.nanoTime();
+		Exception unhandledException = null;
 		
 		try {
 			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
-			doDispatch(mapOnly);
+			for (MockMvcListener listener : listeners) {
+				listener.dispatchStarted(request);
+			}
+			doDispatch(state, mapOnly);
 		}
 		catch (Exception exception) {
-			logger.error("Unhandled exception", exception);
-			fail("Failed to dispatch Mock MVC request (check logs for stacktrace): " + exception);
+			unhandledException = exception;
 		}
 		finally {
 			RequestContextHolder.resetRequestAttributes();
 		}
 
-		return this.new ResultActionsAdapter();
+		long totalTime = System.nanoTime() - startTime;
+		long endAllocatedBytes = (startAllocatedBytes != -1) ? AllocationCounter.getCurrentThreadAllocatedBytes() : -1;
+		long allocatedBytes = (endAllocatedBytes != -1) ? endAllocatedBytes - startAllocatedBytes : -1;
+
+		DispatchTimings timings = state.createTimings(totalTime);
+		MvcResult result = new DefaultMvcResult(request, response, 
+				state.handler, state.interceptors, state.handlerException, state.mav, timings, allocatedBytes);
+
+		if (unhandledException != null) {
+			for (MockMvcListener listener : listeners) {
+				listener.dispatchFailed(result, unhandledException);
+			}
+			logger.error("Unhandled exception", unhandledException);
+			fail("Failed to dispatch Mock MVC request (check logs for stacktrace): " + unhandledException);
+		}
+
+		for (MockMvcListener listener : listeners) {
+			listener.dispatchCompleted(result);
+		}
+		return result;
 	}
 
-	private void clear() {
-		request = null;
-		response = null;
-		handler = null;
-		interceptors = null;
-		mav = null;
+	/**
+	 * Notify listeners that the requests processed so far were performed to warm up the JVM.
+	 */
+	void warmUpCompleted() {
+		for (MockMvcListener listener : listeners) {
+			listener.warmUpCompleted();
+		}
 	}
 
-	private void doDispatch(boolean mapOnly) throws Exception {
+	private void doDispatch(DispatchState state, boolean mapOnly) throws Exception {
+		
+		MockHttpServletRequest request = state.request;
+		MockHttpServletResponse response = state.response;
 		
 		try {
-			initHandlerExecutionChain();
+			state.startPhase(DispatchPhase.HANDLER_MAPPING);
+			initHandlerExecutionChain(state);
+			state.endPhase();
 
-			if (handler == null || mapOnly) {
+			if (state.handler == null) {
+				return;
+			}
+
+			for (MockMvcListener listener : listeners) {
+				listener.handlerSelected(request, state.handler);
+			}
+
+			if (mapOnly) {
 				return;
 			}
 			
-			List<HandlerInterceptor> interceptorList = (interceptors != null) ? 
-					Arrays.asList(interceptors) : new ArrayList<HandlerInterceptor>();
+			HandlerInterceptor[] interceptors = (state.interceptors != null) ? 
+					state.interceptors : new HandlerInterceptor[0];
 
-			for (HandlerInterceptor interceptor : interceptorList) {
-				if (!interceptor.preHandle(request, response, handler)) {
+			for (int i = 0; i < interceptors.length; i++) {
+				state.startPhase(DispatchPhase.INTERCEPTOR_PRE_HANDLE, i);
+				boolean proceed = interceptors[i].preHandle(request, response, state.handler);
+				state.endPhase();
+				if (!proceed) {
 					return;
 				}
 			}
 
-			HandlerAdapter adapter = getHandlerAdapter();
-			mav = adapter.handle(request, response, handler);
-			updateDefaultViewName();
+			state.startPhase(DispatchPhase.HANDLER_ADAPTER_LOOKUP);
+			HandlerAdapter adapter = getHandlerAdapter(state.handler);
+			state.startPhase(DispatchPhase.HANDLER_INVOCATION);
+			state.mav = adapter.handle(request, response, state.handler);
+			state.endPhase();
+			updateDefaultViewName(state);
 
-			Collections.reverse(interceptorList);
-			for (HandlerInterceptor interceptor : interceptorList) {
-				interceptor.postHandle(request, response, handler, mav);
+			for (int i = interceptors.length - 1; i >= 0; i--) {
+				state.startPhase(DispatchPhase.INTERCEPTOR_POST_HANDLE, i);
+				interceptors[i].postHandle(request, response, state.handler, state.mav);
+				state.endPhase();
 			}
 		}
 		catch (Exception exception) {
-			processHandlerException(exception);
-			updateDefaultViewName();
+			state.endPhase();
+			for (MockMvcListener listener : listeners) {
+				listener.handlerException(request, state.handler, exception);
+			}
+			state.startPhase(DispatchPhase.EXCEPTION_RESOLUTION);
+			processHandlerException(state, exception);
+			state.endPhase();
+			updateDefaultViewName(state);
 		}
 
-		if (mav == null) {
+		if (state.mav == null) {
 			return;
 		}
 
 		Locale locale = mvcSetup.getLocaleResolver().resolveLocale(request);
 		response.setLocale(locale);
 
-		View view = resolveView(locale);
-		view.render(mav.getModel(), request, response);
+		state.startPhase(DispatchPhase.VIEW_RESOLUTION);
+		View view = resolveView(state.mav, locale);
+		state.startPhase(DispatchPhase.VIEW_RENDERING);
+		view.render(state.mav.getModel(), request, response);
+		state.endPhase();
+
+		for (MockMvcListener listener : listeners) {
+			listener.viewRendered(request, view);
+		}
 	}
 
-	private void initHandlerExecutionChain() throws Exception {
-		for (HandlerMapping mapping : mvcSetup.getHandlerMappings()) {
-			HandlerExecutionChain chain = mapping.getHandler(request);
-			if (chain != null) {
-				handler = chain.getHandler();
-				interceptors = chain.getInterceptors();
-				return;
+	private void initHandlerExecutionChain(DispatchState state) throws Exception {
+		HandlerExecutionChain chain = null;
+		if (handlerLookupCache != null) {
+			chain = handlerLookupCache.getHandler(state.request, mvcSetup.getHandlerMappings());
+		}
+		else {
+			for (HandlerMapping mapping : mvcSetup.getHandlerMappings()) {
+				chain = mapping.getHandler(state.request);
+				if (chain != null) {
+					break;
+				}
 			}
 		}
-		response.sendError(HttpServletResponse.SC_NOT_FOUND);
+		if (chain != null) {
+			state.handler = chain.getHandler();
+			state.interceptors = chain.getInterceptors();
+			return;
+		}
+		state.response.sendError(HttpServletResponse.SC_NOT_FOUND);
+	}
+
+	/**
+	 * Return the first adapter that supports the handler, from the handler adapter cache if enabled.
+	 */
+	private HandlerAdapter getHandlerAdapter(Object handler) {
+		if (handlerAdapterCache == null) {
+			return findHandlerAdapter(handler);
+		}
+		Object cacheKey = (handler instanceof HandlerMethod) ? 
+				((HandlerMethod) handler).getMethod() : handler.getClass();
+		HandlerAdapter adapter = handlerAdapterCache.get(cacheKey);
+		if (adapter == null) {
+			adapter = findHandlerAdapter(handler);
+			handlerAdapterCache.put(cacheKey, adapter);
+		}
+		return adapter;
 	}
 
-	private HandlerAdapter getHandlerAdapter() {
+	private HandlerAdapter findHandlerAdapter(Object handler) {
 		for (HandlerAdapter adapter : mvcSetup.getHandlerAdapters()) {
 			if (adapter.supports(handler)) {
 				return adapter;
@@ -179,29 +282,35 @@ public class MockDispatcher {
 				+ "]. Available adapters: [" + mvcSetup.getHandlerAdapters() + "]");
 	}
 
-	private void updateDefaultViewName() throws Exception {
-		if (mav != null && !mav.hasView()) {
-			String viewName = mvcSetup.getViewNameTranslator().getViewName(request);
-			mav.setViewName(viewName);
+	private void updateDefaultViewName(DispatchState state) throws Exception {
+		if (state.mav != null && !state.mav.hasView()) {
+			state.startPhase(DispatchPhase.VIEW_NAME_TRANSLATION);
+			String viewName = mvcSetup.getViewNameTranslator().getViewName(state.request);
+			state.mav.setViewName(viewName);
+			state.endPhase();
 		}
 	}
 
-	private void processHandlerException(Exception exception) throws Exception {
-		handlerException = exception;
+	private void processHandlerException(DispatchState state, Exception exception) throws Exception {
+		state.handlerException = exception;
 		for (HandlerExceptionResolver resolver : mvcSetup.getExceptionResolvers()) {
-			mav = resolver.resolveException(request, response, handler, exception);
+			ModelAndView mav = resolver.resolveException(state.request, state.response, state.handler, exception);
 			if (mav != null) {
-				mav = mav.isEmpty() ? null : mav;
+				state.mav = mav.isEmpty() ? null : mav;
 				return;
 			}
 		}
 		throw exception;
 	}
 	
-	private View resolveView(Locale locale) throws Exception {
+	private View resolveView(ModelAndView mav, Locale locale) throws Exception {
 		if (mav.isReference()) {
-			for (ViewResolver viewResolver : mvcSetup.getViewResolvers()) {
-				View view = viewResolver.resolveViewName(mav.getViewName(), locale);
+			List<ViewResolver> viewResolvers = mvcSetup.getViewResolvers();
+			for (int i = 0; i < viewResolvers.size(); i++) {
+				ViewResolver viewResolver = viewResolvers.get(i);
+				View view = (viewResolverCache != null) ? 
+						viewResolverCache.resolveViewName(i, viewResolver, mav.getViewName(), locale) :
+						viewResolver.resolveViewName(mav.getViewName(), locale);
 				if (view != null) {
 					return view;
 				}
@@ -212,13 +321,94 @@ public class MockDispatcher {
 		return view;
 	}
 
-	private class ResultActionsAdapter implements MvcResultActions {
+	/**
+	 * Holds the contextual information recorded while processing a single request. 
+	 * Confined to the thread invoking {@link MockDispatcher#dispatch}.
+	 */
+	private static class DispatchState {
+
+		private static final int PHASE_COUNT = DispatchPhase.values().length;
+
+		private final MockHttpServletRequest request;
+
+		private final MockHttpServletResponse response;
+
+		private Object handler;
+
+		private HandlerInterceptor[] interceptors;
+
+		private ModelAndView mav;
+
+		private Exception handlerException;
+
+		private final long[] phaseTimes = new long[PHASE_COUNT];
+
+		private long[] preHandleTimes;
 
-		public MvcResultActions andExpect(MvcResultMatcher matcher) {
-			matcher.match(request, response, handler, handlerException, mav);
-			return this;
+		private long[] postHandleTimes;
+
+		private DispatchPhase currentPhase;
+
+		private int currentInterceptorIndex;
+
+		private long phaseStartTime;
+
+		public DispatchState(MockHttpServletRequest request, MockHttpServletResponse response) {
+			this.request = request;
+			this.response = response;
+		}
+
+		/**
+		 * Start timing the given phase, ending the current phase if any.
+		 */
+		public void startPhase(DispatchPhase phase) {
+			startPhase(phase, -1);
+		}
+
+		/**
+		 * Start timing the given phase for the interceptor at the given index, ending the current phase if any.
+		 */
+		public void startPhase(DispatchPhase phase, int interceptorIndex) {
+			long now = System.nanoTime();
+			endPhase(now);
+			currentPhase = phase;
+			currentInterceptorIndex = interceptorIndex;
+			phaseStartTime = now;
+		}
+
+		/**
+		 * End timing the current phase if any.
+		 */
+		public void endPhase() {
+			if (currentPhase != null) {
+				endPhase(System.nanoTime());
+			}
+		}
+
+		private void endPhase(long now) {
+			if (currentPhase == null) {
+				return;
+			}
+			long elapsed = now - phaseStartTime;
+			phaseTimes[currentPhase.ordinal()] += elapsed;
+			if (currentInterceptorIndex >= 0) {
+				if (preHandleTimes == null) {
+					preHandleTimes = new long[interceptors.length];
+					postHandleTimes = new long[interceptors.length];
+				}
+				long[] times = (currentPhase == DispatchPhase.INTERCEPTOR_PRE_HANDLE) ? preHandleTimes : postHandleTimes;
+				times[currentInterceptorIndex] += elapsed;
+			}
+			currentPhase = null;
+		}
+
+		public DispatchTimings createTimings(long totalTime) {
+			endPhase();
+			int interceptorCount = (interceptors != null) ? interceptors.length : 0;
+			long[] preTimes = (preHandleTimes != null) ? preHandleTimes : new long[interceptorCount];
+			long[] postTimes = (postHandleTimes != null) ? postHandleTimes : new long[interceptorCount];
+			return new DispatchTimings(totalTime, phaseTimes, interceptors, preTimes, postTimes);
 		}
-		
 	}
 
 }
@@ -8,6 +8,14 @@ import org.springframework.web.util.UriTemplate;
 /** @author Arjen Poutsma */
 public abstract class MockHttpServletRequestBuilders {
 
+    private static final int URI_TEMPLATE_CACHE_SIZE = 1024;
+
+    /**
+     * Parsed {@link UriTemplate}s by template, or the expanded {@link URI} for templates without variables.
+     */
+    private static final ConcurrentLruCache<String, Object> uriTemplateCache =
+            new ConcurrentLruCache<String, Object>(URI_TEMPLATE_CACHE_SIZE);
+
     private MockHttpServletRequestBuilders() {
     }
 
@@ -29,17 +37,25 @@ public abstract class MockHttpServletRequestBuilders {
 
     public static MultipartMockHttpServletRequestBuilder fileUpload(String urlTemplate, Object... urlVariables) {
         URI url = expandUrl(urlTemplate, urlVariables);
-        return new MultipartMockHttpServletRequestBuilder(url);
+        return new MultipartMockHttpServletRequestBuilder(url, urlTemplate);
     }
 
     public static DefaultMockHttpServletRequestBuilder request(HttpMethod method, String urlTemplate, Object... urlVariables) {
         URI url = expandUrl(urlTemplate, urlVariables);
-        return new DefaultMockHttpServletRequestBuilder(url, method);
-    }
-
-    private static URI expandUrl(String urlTemplate, Object[] urlVariables) {
-        UriTemplate uriTemplate = new UriTemplate(urlTemplate);
-        return uriTemplate.expand(urlVariables);
+        return new DefaultMockHttpServletRequestBuilder(url, method, urlTemplate);
+    }
+
+    static URI expandUrl(String urlTemplate, Object[] urlVariables) {
+        Object cached = uriTemplateCache.get(urlTemplate);
+        if (cached == null) {
+            UriTemplate uriTemplate = new UriTemplate(urlTemplate);
+            cached = uriTemplate.getVariableNames().isEmpty() ? uriTemplate.expand() : uriTemplate;
+            uriTemplateCache.put(urlTemplate, cached);
+        }
+        if (cached instanceof URI) {
+            return (URI) cached;
+        }
+        return ((UriTemplate) cached).expand(urlVariables);
     }
 
 
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.servlet.ServletContext;
+import javax.servlet.http.Cookie;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * An immutable snapshot of a {@link DefaultMockHttpServletRequestBuilder} created with
+ * {@link DefaultMockHttpServletRequestBuilder#freeze()}. Everything that does not vary between requests is
+ * prepared once so that {@link #buildRequest(ServletContext)} only copies it into a new request.
+ *
+ * <p>Variations are created with the {@code with*} methods, which return a new prototype that shares all
+ * unchanged state with this one. For example:
+ * <pre>
+ * MockHttpServletRequestPrototype prototype = get("/hotels/{id}", 1).accept(MediaType.APPLICATION_JSON).freeze();
+ * for (int id = 1; id &lt; 1000; id++) {
+ *     mockMvc.perform(prototype.withUriVariables(id));
+ * }
+ * </pre>
+ *
+ * <p>A prototype may be shared by threads building requests concurrently. The request body and the request
+ * and session attribute values are shared by all built requests and must not be modified.
+ *
+ * @ThreadSafe
+ */
+public final class MockHttpServletRequestPrototype implements MockHttpServletRequestBuilder {
+
+    private final HttpMethod method;
+
+    private final String urlTemplate;
+
+    private final String requestUri;
+
+    private final String[] parameterNames;
+
+    private final String[][] parameterValues;
+
+    private final String[] headerNames;
+
+    private final Object[][] headerValues;
+
+    private final String contentType;
+
+    private final byte[] requestBody;
+
+    private final Cookie[] cookies;
+
+    private final Locale locale;
+
+    private final String characterEncoding;
+
+    private final String[] attributeNames;
+
+    private final Object[] attributeValues;
+
+    private final String[] sessionAttributeNames;
+
+    private final Object[] sessionAttributeValues;
+
+    private final Principal principal;
+
+    private final MockMultipartFile[] files;
+
+    MockHttpServletRequestPrototype(HttpMethod method, String urlTemplate, URI uri,
+                                    MultiValueMap<String, String> parameters, MultiValueMap<String, Object> headers,
+                                    String contentType, byte[] requestBody, Cookie[] cookies, Locale locale,
+                                    String characterEncoding, Map<String, Object> attributes,
+                                    Map<String, Object> sessionAttributes, Principal principal,
+                                    List<MockMultipartFile> files) {
+        this.method = method;
+        this.urlTemplate = urlTemplate;
+        this.requestUri = uri.toString();
+        this.parameterNames = parameters.keySet().toArray(new String[parameters.size()]);
+        this.parameterValues = new String[parameterNames.length][];
+        for (int i = 0; i < parameterNames.length; i++) {
+            List<String> values = parameters.get(parameterNames[i]);
+            parameterValues[i] = values.toArray(new String[values.size()]);
+        }
+        this.headerNames = headers.keySet().toArray(new String[headers.size()]);
+        this.headerValues = new Object[headerNames.length][];
+        for (int i = 0; i < headerNames.length; i++) {
+            headerValues[i] = headers.get(headerNames[i]).toArray();
+        }
+        this.contentType = contentType;
+        this.requestBody = (requestBody != null) ? requestBody.clone() : null;
+        this.cookies = copyCookies(cookies);
+        this.locale = locale;
+        this.characterEncoding = characterEncoding;
+        this.attributeNames = attributes.keySet().toArray(new String[attributes.size()]);
+        this.attributeValues = attributes.values().toArray();
+        this.sessionAttributeNames = sessionAttributes.keySet().toArray(new String[sessionAttributes.size()]);
+        this.sessionAttributeValues = sessionAttributes.values().toArray();
+        this.principal = principal;
+        this.files = (files != null) ? files.toArray(new MockMultipartFile[files.size()]) : null;
+    }
+
+    /** Copy constructor for the {@code with*} methods. */
+    private MockHttpServletRequestPrototype(MockHttpServletRequestPrototype other, String requestUri,
+                                            String[] parameterNames, String[][] parameterValues,
+                                            byte[] requestBody) {
+        this.method = other.method;
+        this.urlTemplate = other.urlTemplate;
+        this.requestUri = requestUri;
+        this.parameterNames = parameterNames;
+        this.parameterValues = parameterValues;
+        this.headerNames = other.headerNames;
+        this.headerValues = other.headerValues;
+        this.contentType = other.contentType;
+        this.requestBody = requestBody;
+        this.cookies = other.cookies;
+        this.locale = other.locale;
+        this.characterEncoding = other.characterEncoding;
+        this.attributeNames = other.attributeNames;
+        this.attributeValues = other.attributeValues;
+        this.sessionAttributeNames = other.sessionAttributeNames;
+        this.sessionAttributeValues = other.sessionAttributeValues;
+        this.principal = other.principal;
+        this.files = other.files;
+    }
+
+    /** Return the HTTP method of the request. */
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    /** Return the URL template the request URI was expanded from, e.g. "/hotels/{id}". */
+    public String getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    /**
+     * Return a prototype with the request URI expanded from the original URL template with the given variables.
+     */
+    public MockHttpServletRequestPrototype withUriVariables(Object... urlVariables) {
+        URI uri = MockHttpServletRequestBuilders.expandUrl(urlTemplate, urlVariables);
+        return new MockHttpServletRequestPrototype(this, uri.toString(), parameterNames, parameterValues,
+                requestBody);
+    }
+
+    /**
+     * Return a prototype with the given request body. The array is not copied and must not be modified.
+     */
+    public MockHttpServletRequestPrototype withBody(byte[] requestBody) {
+        return new MockHttpServletRequestPrototype(this, requestUri, parameterNames, parameterValues, requestBody);
+    }
+
+    /**
+     * Return a prototype with the values of the given parameter replaced, or the parameter added.
+     */
+    public MockHttpServletRequestPrototype withParam(String name, String value, String... values) {
+        Assert.hasLength(name, "'name' must not be empty");
+        Assert.notNull(value, "'value' must not be null");
+        List<String> newValues = new ArrayList<String>(1 + values.length);
+        newValues.add(value);
+        newValues.addAll(Arrays.asList(values));
+
+        int index = Arrays.asList(parameterNames).indexOf(name);
+        String[] newNames = parameterNames;
+        String[][] newParameterValues;
+        if (index == -1) {
+            index = parameterNames.length;
+            newNames = new String[index + 1];
+            System.arraycopy(parameterNames, 0, newNames, 0, index);
+            newNames[index] = name;
+            newParameterValues = new String[index + 1][];
+            System.arraycopy(parameterValues, 0, newParameterValues, 0, index);
+        }
+        else {
+            newParameterValues = parameterValues.clone();
+        }
+        newParameterValues[index] = newValues.toArray(new String[newValues.size()]);
+        return new MockHttpServletRequestPrototype(this, requestUri, newNames, newParameterValues, requestBody);
+    }
+
+    public MockHttpServletRequest buildRequest(ServletContext servletContext) {
+
+        MockHttpServletRequest request = createServletRequest(servletContext);
+
+        request.setMethod(method.name());
+        request.setRequestURI(requestUri);
+
+        for (int i = 0; i < parameterNames.length; i++) {
+            request.setParameter(parameterNames[i], parameterValues[i].clone());
+        }
+        for (int i = 0; i < headerNames.length; i++) {
+            for (Object value : headerValues[i]) {
+                request.addHeader(headerNames[i], value);
+            }
+        }
+        for (int i = 0; i < attributeNames.length; i++) {
+            request.setAttribute(attributeNames[i], attributeValues[i]);
+        }
+        for (int i = 0; i < sessionAttributeNames.length; i++) {
+            request.getSession().setAttribute(sessionAttributeNames[i], sessionAttributeValues[i]);
+        }
+
+        request.setContentType(contentType);
+        request.setContent(requestBody);
+        request.setCookies(copyCookies(cookies));
+        request.setCharacterEncoding(characterEncoding);
+        request.setUserPrincipal(principal);
+
+        if (locale != null) {
+            request.addPreferredLocale(locale);
+        }
+
+        return request;
+    }
+
+    private MockHttpServletRequest createServletRequest(ServletContext servletContext) {
+        if (files == null) {
+            return new MockHttpServletRequest(servletContext);
+        }
+        MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
+        for (MockMultipartFile file : files) {
+            request.addFile(file);
+        }
+        return request;
+    }
+
+    private static Cookie[] copyCookies(Cookie[] cookies) {
+        if (cookies == null) {
+            return null;
+        }
+        Cookie[] copy = new Cookie[cookies.length];
+        for (int i = 0; i < cookies.length; i++) {
+            copy[i] = (Cookie) cookies[i].clone();
+        }
+        return copy;
+    }
+
+}
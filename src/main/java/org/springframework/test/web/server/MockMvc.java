@@ -16,19 +16,48 @@
 
 package org.springframework.test.web.server;
 
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javax.servlet.ServletContext;
 
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.server.load.ConstantRateLoadTest;
+import org.springframework.test.web.server.load.LoadTest;
+import org.springframework.util.Assert;
 
-/** <strong>Main entry point for server-side Spring MVC test support.</strong> */
+/**
+ * <strong>Main entry point for server-side Spring MVC test support.</strong>
+ * 
+ * <p>A {@link MockMvc} instance may be shared by multiple threads performing requests concurrently.
+ */
 public class MockMvc {
 
+    /** The maximum number of rounds {@link #warmUp} performs while waiting for compilation to settle. */
+    private static final int MAX_WARM_UP_ROUNDS = 20;
+
+    /** Compilation is considered settled when it takes less than this share of the time of a round. */
+    private static final double SETTLED_COMPILATION_RATIO = 0.01;
+
     private final ServletContext servletContext;
 
     private final MockDispatcher mockDispatcher;
 
-    private boolean mapOnly;
+    private volatile boolean mapOnly;
+
+    private volatile ResponseRecycler responseRecycler;
+
+    private StartupReport startupReport;
 
     /** To create a {@link MockMvc} instance see methods in {@code MockMvcBuilders}. */
     MockMvc(ServletContext servletContext, MockDispatcher mockDispatcher) {
@@ -45,6 +74,32 @@ public class MockMvc {
         return this;
     }
 
+    /**
+     * Enables a mode for load and soak tests in which each thread reuses the same {@link MockHttpServletResponse}
+     * for all requests it performs, resetting it before each request. This reduces the garbage created by the
+     * test harness itself so that allocation and GC measurements reflect the application.
+     *
+     * <p>In this mode the response of an {@link MvcResult} is only valid until the same thread performs the next
+     * request, so expectations must be applied right away and results must not be kept. Requests performed with
+     * {@link #performAll(Collection, ExecutorService)} always get a new response.
+     */
+    public MockMvc setRecycleResponses(boolean enable) {
+        this.responseRecycler = enable ? new ResponseRecycler() : null;
+        return this;
+    }
+
+    /**
+     * Return the timings recorded while building this instance, or {@code null} unless
+     * {@link AbstractMockMvcBuilder#recordStartupReport()} was called.
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    void setStartupReport(StartupReport startupReport) {
+        this.startupReport = startupReport;
+    }
+
     /*
     public static MockMvc createFromApplicationContext(ApplicationContext applicationContext) {
         // TODO
@@ -59,14 +114,195 @@ public class MockMvc {
 
     // Perform
 
+    /**
+     * Perform a request and return a type that allows setting up expectations on the result. Use
+     * {@link MvcResultActions#andReturn()} to obtain the {@link MvcResult} for deferred verification.
+     */
     public MvcResultActions perform(MockHttpServletRequestBuilder requestBuilder) {
+        return perform(requestBuilder, true);
+    }
+
+    private MvcResultActions perform(MockHttpServletRequestBuilder requestBuilder, boolean allowRecycling) {
         MockHttpServletRequest request = requestBuilder.buildRequest(servletContext);
-        MockHttpServletResponse response = new MockHttpServletResponse();
-        return execute(request, response);
+        return execute(request, obtainResponse(allowRecycling));
+    }
+
+    private MockHttpServletResponse obtainResponse(boolean allowRecycling) {
+        ResponseRecycler recycler = this.responseRecycler;
+        return (allowRecycling && recycler != null) ? recycler.obtainResponse() : new MockHttpServletResponse();
+    }
+
+    /**
+     * Perform the given requests concurrently with a thread pool sized to the number of available processors.
+     * The pool is shut down before the method returns.
+     *
+     * @see #performAll(Collection, ExecutorService)
+     */
+    public List<MvcResult> performAll(Collection<? extends MockHttpServletRequestBuilder> requestBuilders) {
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            return performAll(requestBuilders, executor);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Perform the given requests concurrently on the provided {@link ExecutorService} and wait for all of them
+     * to complete. Each request is built and dispatched on a worker thread with its own request attributes bound
+     * to the {@code RequestContextHolder} for the duration of the dispatch.
+     *
+     * <p>The executor is not shut down. It may be any {@link ExecutorService} implementation including a
+     * {@code ForkJoinPool} on a Java 7 runtime.
+     *
+     * @param requestBuilders the requests to perform
+     * @param executor the executor to dispatch the requests on
+     * @return the results of the processed requests in the iteration order of the given request builders
+     */
+    public List<MvcResult> performAll(Collection<? extends MockHttpServletRequestBuilder> requestBuilders,
+                                      ExecutorService executor) {
+
+        List<Callable<MvcResult>> tasks = new ArrayList<Callable<MvcResult>>(requestBuilders.size());
+        for (final MockHttpServletRequestBuilder requestBuilder : requestBuilders) {
+            tasks.add(new Callable<MvcResult>() {
+                public MvcResult call() {
+                    return perform(requestBuilder, false).andReturn();
+                }
+            });
+        }
+
+        List<MvcResult> results = new ArrayList<MvcResult>(tasks.size());
+        try {
+            for (Future<MvcResult> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while performing requests", ex);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to perform request", cause);
+        }
+        return results;
+    }
+
+    /**
+     * Create a closed-loop {@link LoadTest} that performs the given requests in turn.
+     * Configure the number of virtual users and the duration or iterations before running it.
+     */
+    public LoadTest loadTest(MockHttpServletRequestBuilder... requestBuilders) {
+        return loadTest(Arrays.asList(requestBuilders));
+    }
+
+    /**
+     * Create a closed-loop {@link LoadTest} that performs the given requests in turn.
+     * Configure the number of virtual users and the duration or iterations before running it.
+     */
+    public LoadTest loadTest(Collection<? extends MockHttpServletRequestBuilder> requestBuilders) {
+        return new LoadTest(this, requestBuilders);
+    }
+
+    /**
+     * Create an open-loop {@link ConstantRateLoadTest} that starts the given requests in turn at a fixed rate.
+     * Configure the duration before running it.
+     *
+     * @param requestsPerSecond the number of requests to start per second
+     */
+    public ConstantRateLoadTest constantRateLoadTest(double requestsPerSecond,
+                                                     MockHttpServletRequestBuilder... requestBuilders) {
+        return constantRateLoadTest(requestsPerSecond, Arrays.asList(requestBuilders));
+    }
+
+    /**
+     * Create an open-loop {@link ConstantRateLoadTest} that starts the given requests in turn at a fixed rate.
+     * Configure the duration before running it.
+     *
+     * @param requestsPerSecond the number of requests to start per second
+     */
+    public ConstantRateLoadTest constantRateLoadTest(
+            double requestsPerSecond, Collection<? extends MockHttpServletRequestBuilder> requestBuilders) {
+        return new ConstantRateLoadTest(this, requestsPerSecond, requestBuilders);
+    }
+
+    /**
+     * Perform the given requests repeatedly to load classes and let the JIT compiler optimize the request
+     * processing path before measuring latency, and then notify the {@link MockMvcListener}s so that metrics
+     * collected during the warm-up can be discarded. Requests are fully processed, including view rendering,
+     * even in {@linkplain #setMapOnly(boolean) map-only} mode. No expectations are applied and no results
+     * are kept.
+     *
+     * <p>The requests are performed in rounds of {@code iterations} each. If the JVM supports monitoring
+     * compilation time, rounds are repeated until compilation takes less than 1% of the time of a round, up to
+     * a maximum of {@value #MAX_WARM_UP_ROUNDS} rounds. Otherwise a single round is performed.
+     *
+     * @param requestBuilders representative requests to perform
+     * @param iterations the number of times to perform the requests per round
+     * @return the number of rounds performed
+     */
+    public int warmUp(Iterable<? extends MockHttpServletRequestBuilder> requestBuilders, int iterations) {
+        Assert.notNull(requestBuilders, "Request builders are required");
+        Assert.isTrue(requestBuilders.iterator().hasNext(), "At least one request builder is required");
+        Assert.isTrue(iterations > 0, "Iterations must be greater than 0");
+
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitorCompilation = (compilation != null && compilation.isCompilationTimeMonitoringSupported());
+
+        int rounds = 0;
+        boolean settled = false;
+        while (!settled && rounds < MAX_WARM_UP_ROUNDS) {
+            long startCompilationTime = monitorCompilation ? compilation.getTotalCompilationTime() : 0;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (MockHttpServletRequestBuilder requestBuilder : requestBuilders) {
+                    MockHttpServletRequest request = requestBuilder.buildRequest(servletContext);
+                    mockDispatcher.dispatch(request, obtainResponse(true), false);
+                }
+            }
+            rounds++;
+            if (monitorCompilation) {
+                long compilationMillis = compilation.getTotalCompilationTime() - startCompilationTime;
+                double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+                settled = (compilationMillis < elapsedMillis * SETTLED_COMPILATION_RATIO);
+            }
+            else {
+                settled = true;
+            }
+        }
+        mockDispatcher.warmUpCompleted();
+        return rounds;
     }
 
     protected MvcResultActions execute(MockHttpServletRequest request, MockHttpServletResponse response) {
-        return mockDispatcher.dispatch(request, response, mapOnly);
+        MvcResult result = mockDispatcher.dispatch(request, response, mapOnly);
+        return new ResultActionsAdapter(result);
+    }
+
+    private static class ResultActionsAdapter implements MvcResultActions {
+
+        private final MvcResult result;
+
+        public ResultActionsAdapter(MvcResult result) {
+            this.result = result;
+        }
+
+        public MvcResultActions andExpect(MvcResultMatcher matcher) {
+            matcher.match(result);
+            return this;
+        }
+
+        public MvcResult andReturn() {
+            return result;
+        }
     }
 
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.View;
+
+/**
+ * Callback interface notified by the {@link MockDispatcher} as it processes requests. Allows collecting 
+ * information across all requests performed through a {@link MockMvc} instance without wrapping every 
+ * {@code perform} call. Register listeners with {@code AbstractMockMvcBuilder.addListeners(..)}.
+ * 
+ * <p>Listeners are invoked on the thread performing the request and may be invoked concurrently. 
+ * Implementations must be thread-safe and should return quickly. 
+ * 
+ * @see MockMvcListenerAdapter
+ */
+public interface MockMvcListener {
+
+	/**
+	 * Invoked before a request is processed.
+	 */
+	void dispatchStarted(MockHttpServletRequest request);
+
+	/**
+	 * Invoked after a handler has been mapped to the request.
+	 */
+	void handlerSelected(MockHttpServletRequest request, Object handler);
+
+	/**
+	 * Invoked when the handler or one of its interceptors raised an exception, before exception resolution.
+	 */
+	void handlerException(MockHttpServletRequest request, Object handler, Exception exception);
+
+	/**
+	 * Invoked after the view for the request has been rendered.
+	 */
+	void viewRendered(MockHttpServletRequest request, View view);
+
+	/**
+	 * Invoked after a request has been processed.
+	 */
+	void dispatchCompleted(MvcResult result);
+
+	/**
+	 * Invoked when processing a request failed with an exception that was not resolved.
+	 * @param result the information recorded up to the point of failure
+	 * @param exception the unresolved exception
+	 */
+	void dispatchFailed(MvcResult result, Exception exception);
+
+	/**
+	 * Invoked after {@link MockMvc#warmUp} has completed. Listeners that collect metrics should discard 
+	 * what they collected during the warm-up.
+	 */
+	void warmUpCompleted();
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.View;
+
+/**
+ * Abstract adapter class for the {@link MockMvcListener} interface, for simplified implementation of 
+ * individual callbacks.
+ * 
+ */
+public abstract class MockMvcListenerAdapter implements MockMvcListener {
+
+	public void dispatchStarted(MockHttpServletRequest request) {
+	}
+
+	public void handlerSelected(MockHttpServletRequest request, Object handler) {
+	}
+
+	public void handlerException(MockHttpServletRequest request, Object handler, Exception exception) {
+	}
+
+	public void viewRendered(MockHttpServletRequest request, View view) {
+	}
+
+	public void dispatchCompleted(MvcResult result) {
+	}
+
+	public void dispatchFailed(MvcResult result, Exception exception) {
+	}
+
+	public void warmUpCompleted() {
+	}
+
+}
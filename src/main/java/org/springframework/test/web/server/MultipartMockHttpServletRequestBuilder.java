@@ -36,7 +36,11 @@ public class MultipartMockHttpServletRequestBuilder extends DefaultMockHttpServl
     private final List<MockMultipartFile> files = new ArrayList<MockMultipartFile>();
 
     MultipartMockHttpServletRequestBuilder(URI uri) {
-        super(uri, HttpMethod.POST);
+        this(uri, uri.toString());
+    }
+
+    MultipartMockHttpServletRequestBuilder(URI uri, String urlTemplate) {
+        super(uri, HttpMethod.POST, urlTemplate);
         super.contentType(MediaType.MULTIPART_FORM_DATA);
     }
 
@@ -61,6 +65,11 @@ public class MultipartMockHttpServletRequestBuilder extends DefaultMockHttpServl
         return this;
     }
 
+    @Override
+    List<MockMultipartFile> getMultipartFiles() {
+        return files;
+    }
+
     @Override
     protected final MockHttpServletRequest createServletRequest(ServletContext servletContext) {
         MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Provides access to the results of a processed request. 
+ * 
+ * <p>An {@link MvcResult} is an immutable snapshot taken at the end of a dispatch. It may be stored, passed 
+ * to another thread, and matched against expectations at a later time, e.g. after a batch of requests has 
+ * been performed. Use {@link MvcResultActions#andReturn()} to obtain it.
+ * 
+ */
+public interface MvcResult {
+
+	/**
+	 * Return the processed request.
+	 */
+	MockHttpServletRequest getRequest();
+
+	/**
+	 * Return the resulting response.
+	 */
+	MockHttpServletResponse getResponse();
+
+	/**
+	 * Return the handler the request was mapped to, or {@code null} if no handler was matched.
+	 */
+	Object getHandler();
+
+	/**
+	 * Return the interceptors mapped to the handler, or {@code null} if there were none.
+	 */
+	HandlerInterceptor[] getInterceptors();
+
+	/**
+	 * Return the exception raised by the handler or its interceptors, if any.
+	 */
+	Exception getHandlerException();
+
+	/**
+	 * Return the ModelAndView prepared by the handler, or {@code null} if the request was handled directly.
+	 */
+	ModelAndView getModelAndView();
+
+	/**
+	 * Return the response body decoded with the character encoding of the response. The body is decoded on 
+	 * first access only and shared by all matchers applied to this result.
+	 * @see MockHttpServletResponse#getContentAsString()
+	 */
+	String getResponseBody() throws UnsupportedEncodingException;
+
+	/**
+	 * Return the request headers by name, with the first value of each header. The map is created on first 
+	 * access only and cannot be modified.
+	 */
+	Map<String, Object> getRequestHeaders();
+
+	/**
+	 * Return the request attributes by name. The map is created on first access only and cannot be modified.
+	 */
+	Map<String, Object> getRequestAttributes();
+
+	/**
+	 * Return the session attributes by name, creating the session if necessary. The map is created on first 
+	 * access only and cannot be modified.
+	 */
+	Map<String, Object> getSessionAttributes();
+
+	/**
+	 * Return the response headers by name, with the first value of each header. The map is created on first 
+	 * access only and cannot be modified.
+	 */
+	Map<String, Object> getResponseHeaders();
+
+	/**
+	 * Return the values of the response cookies by name. The map is created on first access only and cannot 
+	 * be modified.
+	 */
+	Map<String, Object> getResponseCookies();
+
+	/**
+	 * Return the time spent in each phase of processing the request.
+	 */
+	DispatchTimings getTimings();
+
+	/**
+	 * Return the number of bytes allocated on the dispatching thread while the request was processed, or -1 
+	 * if the JVM does not support per-thread allocation measurement. Allocations made by other threads, 
+	 * e.g. by an asynchronous handler, are not included.
+	 */
+	long getAllocatedBytes();
+
+}
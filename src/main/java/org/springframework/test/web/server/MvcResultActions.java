@@ -29,4 +29,10 @@ public interface MvcResultActions {
 	 */
 	MvcResultActions andExpect(MvcResultMatcher matcher);
 
+	/**
+	 * Return the results of the processed request. The returned {@link MvcResult} is immutable and can be used 
+	 * to apply {@link MvcResultMatcher}s at a later time or from another thread. 
+	 */
+	MvcResult andReturn();
+
 }
\ No newline at end of file
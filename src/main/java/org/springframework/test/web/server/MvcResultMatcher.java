@@ -16,20 +16,15 @@
 
 package org.springframework.test.web.server;
 
-import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.mock.web.MockHttpServletResponse;
-import org.springframework.web.servlet.ModelAndView;
-
 /**
  * Defines a match operation on the results of a processed request.
  * 
+ * <p>Matchers may be applied through {@link MvcResultActions#andExpect(MvcResultMatcher)} right after a request 
+ * is performed, or invoked directly with an {@link MvcResult} obtained earlier.
+ * 
  */
 public interface MvcResultMatcher {
 
-	void match(MockHttpServletRequest request, 
-			   MockHttpServletResponse response, 
-			   Object handler, 
-			   Exception handlerException, 
-			   ModelAndView mav);
+	void match(MvcResult result);
 
 }
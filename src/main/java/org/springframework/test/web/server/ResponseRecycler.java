@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Hands out one {@link MockHttpServletResponse} per thread and resets it to its initial state each time it is 
+ * obtained again, rather than allocating a new response for every request.
+ * 
+ * <p>{@link MockHttpServletResponse} does not provide a way to fully reset itself (e.g. the redirected URL or the 
+ * writer), so the state of each field is restored from a pristine instance: collections and maps are cleared 
+ * and refilled, the content buffer is emptied, final fields such as the output stream that wraps the buffer are 
+ * kept, and all other fields are copied. If that fails for any reason, a new response is created instead.
+ * 
+ * @ThreadSafe
+ */
+class ResponseRecycler {
+
+	private static final Log logger = LogFactory.getLog(ResponseRecycler.class);
+
+	private static final List<Field> fields = initFields();
+
+	/** The response with the initial field values to reset to. It is never written to. */
+	private static final MockHttpServletResponse pristineResponse = new MockHttpServletResponse();
+
+	private static volatile boolean recyclingSupported = true;
+
+	private final ThreadLocal<MockHttpServletResponse> responses = new ThreadLocal<MockHttpServletResponse>();
+
+	private static List<Field> initFields() {
+		final List<Field> fields = new ArrayList<Field>();
+		ReflectionUtils.doWithFields(MockHttpServletResponse.class, new ReflectionUtils.FieldCallback() {
+			public void doWith(Field field) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					ReflectionUtils.makeAccessible(field);
+					fields.add(field);
+				}
+			}
+		});
+		return fields;
+	}
+
+	/**
+	 * Return the response of the current thread reset to its initial state, or a new response if the current 
+	 * thread does not have one yet. The response previously returned to the thread must no longer be in use.
+	 */
+	public MockHttpServletResponse obtainResponse() {
+		MockHttpServletResponse response = responses.get();
+		if (response == null || !reset(response)) {
+			response = new MockHttpServletResponse();
+			responses.set(response);
+		}
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean reset(MockHttpServletResponse response) {
+		if (!recyclingSupported) {
+			return false;
+		}
+		try {
+			for (Field field : fields) {
+				Object value = field.get(response);
+				Object initialValue = field.get(pristineResponse);
+				if (value instanceof ByteArrayOutputStream) {
+					((ByteArrayOutputStream) value).reset();
+				}
+				else if (value instanceof Collection) {
+					((Collection<Object>) value).clear();
+					((Collection<Object>) value).addAll((Collection<Object>) initialValue);
+				}
+				else if (value instanceof Map) {
+					((Map<Object, Object>) value).clear();
+					((Map<Object, Object>) value).putAll((Map<Object, Object>) initialValue);
+				}
+				else if (!Modifier.isFinal(field.getModifiers())) {
+					field.set(response, initialValue);
+				}
+			}
+			return true;
+		}
+		catch (Exception ex) {
+			logger.warn("Failed to reset MockHttpServletResponse, responses will not be recycled", ex);
+			recyclingSupported = false;
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nanosecond timings of the steps taken to build a {@link MockMvc} instance: initializing the application 
+ * context and each of the {@code init*} methods of the {@link AbstractMockMvcBuilder}. Builders that refresh 
+ * the application context themselves also report the time taken to create each bean, excluding the time 
+ * spent creating the beans it depends on.
+ * 
+ * <p>Timings are sorted by descending time so that the most expensive steps and beans come first.
+ * 
+ * @see AbstractMockMvcBuilder#recordStartupReport()
+ * @see MockMvc#getStartupReport()
+ */
+public class StartupReport {
+
+	private final long totalTime;
+
+	private final Map<String, Long> stepTimes;
+
+	private final Map<String, Long> beanTimes;
+
+	StartupReport(long totalTime, Map<String, Long> stepTimes, Map<String, Long> beanTimes) {
+		this.totalTime = totalTime;
+		this.stepTimes = sortByTime(stepTimes);
+		this.beanTimes = sortByTime(beanTimes);
+	}
+
+	private static Map<String, Long> sortByTime(Map<String, Long> times) {
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(times.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+			public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+				return e2.getValue().compareTo(e1.getValue());
+			}
+		});
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, Long> entry : entries) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Return the time taken by {@link AbstractMockMvcBuilder#build()} from start to finish.
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Return the time taken by each step keyed by the name of the builder method, e.g. 
+	 * "initApplicationContext" or "initHandlerMappings". When the builder initializes components in parallel 
+	 * the step times may add up to more than the total time.
+	 */
+	public Map<String, Long> getStepTimes() {
+		return stepTimes;
+	}
+
+	/**
+	 * Return the time taken to instantiate, populate, and initialize each bean keyed by bean name, or an 
+	 * empty map if the builder did not refresh the application context.
+	 */
+	public Map<String, Long> getBeanTimes() {
+		return beanTimes;
+	}
+
+	/**
+	 * Format the timings as a plain text table in milliseconds.
+	 */
+	public String toTable() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("\nStartup (ms):\n");
+		appendRow(sb, totalTime, "total");
+		sb.append("\nSteps (ms):\n");
+		for (Map.Entry<String, Long> entry : stepTimes.entrySet()) {
+			appendRow(sb, entry.getValue(), entry.getKey());
+		}
+		if (!beanTimes.isEmpty()) {
+			sb.append("\nBeans (ms):\n");
+			for (Map.Entry<String, Long> entry : beanTimes.entrySet()) {
+				appendRow(sb, entry.getValue(), entry.getKey());
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void appendRow(StringBuilder sb, long nanos, String name) {
+		sb.append(String.format("%12.3f  %s%n", nanos / 1e6, name));
+	}
+
+	/**
+	 * Format the timings as a JSON object with times in nanoseconds, for example:
+	 * <pre>
+	 * {"totalTime":1200000,
+	 *  "steps":[{"name":"initApplicationContext","time":1000000}, ...],
+	 *  "beans":[{"name":"myService","time":400000}, ...]}
+	 * </pre>
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"totalTime\":").append(totalTime);
+		sb.append(",\"steps\":");
+		appendJsonArray(sb, stepTimes);
+		sb.append(",\"beans\":");
+		appendJsonArray(sb, beanTimes);
+		sb.append("}");
+		return sb.toString();
+	}
+
+	private static void appendJsonArray(StringBuilder sb, Map<String, Long> times) {
+		sb.append("[");
+		boolean first = true;
+		for (Map.Entry<String, Long> entry : times.entrySet()) {
+			if (!first) {
+				sb.append(",");
+			}
+			sb.append("{\"name\":");
+			appendJsonString(sb, entry.getKey());
+			sb.append(",\"time\":").append(entry.getValue()).append("}");
+			first = false;
+		}
+		sb.append("]");
+	}
+
+	private static void appendJsonString(StringBuilder sb, String value) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return toTable();
+	}
+
+}
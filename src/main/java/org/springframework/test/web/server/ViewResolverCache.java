@@ -0,0 +1,129 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
+
+/**
+ * Caches the views returned by each {@link ViewResolver} by view name and {@link Locale}, including the 
+ * fact that a resolver returned no view. Resolvers whose result depends on more than the view name and 
+ * locale are called every time. That includes the {@link ContentNegotiatingViewResolver}, which depends 
+ * on the request, and any resolver type passed to the constructor.
+ * 
+ * @ThreadSafe
+ */
+class ViewResolverCache {
+
+	private static final View NO_VIEW = new View() {
+
+		public String getContentType() {
+			return null;
+		}
+
+		public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private final ConcurrentLruCache<ViewCacheKey, View> cache;
+
+	private final List<Class<?>> dynamicResolverTypes = new ArrayList<Class<?>>();
+
+	ViewResolverCache(int maxSize, Class<?>... dynamicResolverTypes) {
+		this.cache = new ConcurrentLruCache<ViewCacheKey, View>(maxSize);
+		this.dynamicResolverTypes.add(ContentNegotiatingViewResolver.class);
+		this.dynamicResolverTypes.addAll(Arrays.asList(dynamicResolverTypes));
+	}
+
+	/**
+	 * Resolve the view name with the given resolver, or return the result of a previous resolution.
+	 * @param resolverIndex the index of the resolver in the {@link MvcSetup}, to tell resolvers apart
+	 * @return the view, or {@code null} if the resolver does not resolve the view name
+	 */
+	public View resolveViewName(int resolverIndex, ViewResolver resolver, String viewName, Locale locale) 
+			throws Exception {
+		if (isDynamic(resolver)) {
+			return resolver.resolveViewName(viewName, locale);
+		}
+		ViewCacheKey key = new ViewCacheKey(resolverIndex, viewName, locale);
+		View view = cache.get(key);
+		if (view == null) {
+			view = resolver.resolveViewName(viewName, locale);
+			cache.put(key, (view != null) ? view : NO_VIEW);
+		}
+		return (view != NO_VIEW) ? view : null;
+	}
+
+	public int size() {
+		return cache.size();
+	}
+
+	private boolean isDynamic(ViewResolver resolver) {
+		for (Class<?> type : dynamicResolverTypes) {
+			if (type.isInstance(resolver)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class ViewCacheKey {
+
+		private final int resolverIndex;
+
+		private final String viewName;
+
+		private final Locale locale;
+
+		public ViewCacheKey(int resolverIndex, String viewName, Locale locale) {
+			this.resolverIndex = resolverIndex;
+			this.viewName = viewName;
+			this.locale = locale;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ViewCacheKey)) {
+				return false;
+			}
+			ViewCacheKey otherKey = (ViewCacheKey) other;
+			return (resolverIndex == otherKey.resolverIndex && viewName.equals(otherKey.viewName) 
+					&& ObjectUtils.nullSafeEquals(locale, otherKey.locale));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * resolverIndex + viewName.hashCode()) + ObjectUtils.nullSafeHashCode(locale);
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.test.web.server.MockHttpServletRequestBuilder;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.util.Assert;
+
+/**
+ * An open-loop load test that starts requests against a {@link MockMvc} instance at a constant rate regardless 
+ * of how long earlier requests take to complete. The given requests are performed in turn.
+ * 
+ * <p>Each request is scheduled to start at a fixed point in time and its latency is measured from that point 
+ * rather than from the time it actually started. When requests are processed more slowly than they arrive, the 
+ * time they spend waiting is therefore included in the reported latency instead of being hidden by a lower 
+ * request rate ("coordinated omission"). The time spent processing requests alone is reported as service time.
+ * 
+ * <p>Use {@code MockMvc.constantRateLoadTest(..)} to create an instance. For example:
+ * <pre>
+ * LoadTestResult result = mockMvc.constantRateLoadTest(5000, get("/hotels/{id}", 1), get("/hotels"))
+ *     .duration(60, TimeUnit.SECONDS)
+ *     .run();
+ * </pre>
+ * 
+ * <p>Requests are performed without applying any matchers. Requests failing with an unhandled exception are 
+ * counted as errors and their latency is not recorded.
+ * 
+ */
+public class ConstantRateLoadTest {
+
+	private final MockMvc mockMvc;
+
+	private final List<MockHttpServletRequestBuilder> requestBuilders;
+
+	private final double requestsPerSecond;
+
+	private int workerThreads = Runtime.getRuntime().availableProcessors();
+
+	private long duration;
+
+	public ConstantRateLoadTest(MockMvc mockMvc, double requestsPerSecond,
+			Collection<? extends MockHttpServletRequestBuilder> requestBuilders) {
+
+		Assert.notNull(mockMvc, "MockMvc is required");
+		Assert.isTrue(requestsPerSecond > 0, "The request rate must be greater than 0");
+		Assert.notEmpty(requestBuilders, "At least one request is required");
+		this.mockMvc = mockMvc;
+		this.requestsPerSecond = requestsPerSecond;
+		this.requestBuilders = new ArrayList<MockHttpServletRequestBuilder>(requestBuilders);
+	}
+
+	/**
+	 * Set the number of threads performing requests. Requests that are due while all threads are busy wait 
+	 * for a thread to become available. The default is the number of available processors.
+	 */
+	public ConstantRateLoadTest workerThreads(int workerThreads) {
+		Assert.isTrue(workerThreads > 0, "At least one worker thread is required");
+		this.workerThreads = workerThreads;
+		return this;
+	}
+
+	/**
+	 * Start requests for the given duration.
+	 */
+	public ConstantRateLoadTest duration(long duration, TimeUnit unit) {
+		Assert.isTrue(duration > 0, "Duration must be greater than 0");
+		this.duration = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * Run the load test on the calling thread, which schedules requests, and wait for all started requests 
+	 * to complete.
+	 */
+	public LoadTestResult run() {
+		Assert.state(duration > 0, "A duration is required");
+
+		final List<LatencyRecorder> recorders = new ArrayList<LatencyRecorder>();
+		final ThreadLocal<LatencyRecorder> recorderHolder = new ThreadLocal<LatencyRecorder>() {
+			protected LatencyRecorder initialValue() {
+				LatencyRecorder recorder = new LatencyRecorder(requestBuilders);
+				synchronized (recorders) {
+					recorders.add(recorder);
+				}
+				return recorder;
+			}
+		};
+
+		double interval = 1e9 / requestsPerSecond;
+		int requestCount = requestBuilders.size();
+
+		ExecutorService executor = Executors.newFixedThreadPool(workerThreads);
+		long startTime = System.nanoTime();
+		try {
+			for (long i = 0; ; i++) {
+				long offset = (long) (i * interval);
+				if (offset >= duration) {
+					break;
+				}
+				long intendedStartTime = startTime + offset;
+				waitUntil(intendedStartTime);
+				executor.execute(new ScheduledRequest((int) (i % requestCount), intendedStartTime, recorderHolder));
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running load test", ex);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		long elapsedTime = System.nanoTime() - startTime;
+
+		Map<String, LatencyHistogram> histograms = new HashMap<String, LatencyHistogram>();
+		Map<String, LatencyHistogram> serviceTimeHistograms = new HashMap<String, LatencyHistogram>();
+		Map<String, Long> errorCounts = new HashMap<String, Long>();
+		synchronized (recorders) {
+			for (LatencyRecorder recorder : recorders) {
+				recorder.mergeInto(histograms, serviceTimeHistograms, errorCounts);
+			}
+		}
+		return new LoadTestResult(elapsedTime, histograms, serviceTimeHistograms, errorCounts);
+	}
+
+	private static void waitUntil(long time) throws InterruptedException {
+		long remaining;
+		while ((remaining = time - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+
+	/**
+	 * Performs a single request and records its latency relative to the time it was scheduled to start.
+	 */
+	private class ScheduledRequest implements Runnable {
+
+		private final int requestIndex;
+
+		private final long intendedStartTime;
+
+		private final ThreadLocal<LatencyRecorder> recorderHolder;
+
+		public ScheduledRequest(int requestIndex, long intendedStartTime, ThreadLocal<LatencyRecorder> recorderHolder) {
+			this.requestIndex = requestIndex;
+			this.intendedStartTime = intendedStartTime;
+			this.recorderHolder = recorderHolder;
+		}
+
+		public void run() {
+			LatencyRecorder recorder = recorderHolder.get();
+			long startTime = System.nanoTime();
+			try {
+				mockMvc.perform(requestBuilders.get(requestIndex));
+				long endTime = System.nanoTime();
+				recorder.recordLatency(requestIndex, endTime - intendedStartTime, endTime - startTime);
+			}
+			catch (AssertionError error) {
+				recorder.recordError(requestIndex);
+			}
+			catch (RuntimeException ex) {
+				recorder.recordError(requestIndex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.Arrays;
+
+import org.springframework.util.Assert;
+
+/**
+ * A histogram of latency values in nanoseconds covering the full range of positive {@code long} values with 
+ * a fixed relative precision. Values below 128 are counted exactly. Larger values are counted in log-linear 
+ * buckets each split into 64 sub-buckets, which bounds the relative error of any reported value to under 1.6%.
+ * 
+ * <p>The memory footprint is fixed at a few kilobytes regardless of the number of recorded values.
+ * 
+ * @NotThreadSafe
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+	private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS;
+
+	private final long[] counts = new long[SUB_BUCKET_COUNT + BUCKET_COUNT * SUB_BUCKET_HALF_COUNT];
+
+	private long totalCount;
+
+	private double totalValue;
+
+	private long minValue = Long.MAX_VALUE;
+
+	private long maxValue;
+
+	/**
+	 * Record a single value.
+	 * @param value the value to record, in nanoseconds
+	 */
+	public void recordValue(long value) {
+		Assert.isTrue(value >= 0, "Negative values cannot be recorded: " + value);
+		counts[indexOf(value)]++;
+		totalCount++;
+		totalValue += value;
+		if (value < minValue) {
+			minValue = value;
+		}
+		if (value > maxValue) {
+			maxValue = value;
+		}
+	}
+
+	/**
+	 * Add all values recorded in the given histogram to this one.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		totalCount += other.totalCount;
+		totalValue += other.totalValue;
+		minValue = Math.min(minValue, other.minValue);
+		maxValue = Math.max(maxValue, other.maxValue);
+	}
+
+	/**
+	 * Discard all recorded values.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		totalValue = 0;
+		minValue = Long.MAX_VALUE;
+		maxValue = 0;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Return the lowest recorded value, or 0 if no values were recorded.
+	 */
+	public long getMinValue() {
+		return (totalCount != 0) ? minValue : 0;
+	}
+
+	/**
+	 * Return the highest recorded value, or 0 if no values were recorded.
+	 */
+	public long getMaxValue() {
+		return maxValue;
+	}
+
+	/**
+	 * Return the arithmetic mean of the recorded values, or 0 if no values were recorded.
+	 */
+	public double getMean() {
+		return (totalCount != 0) ? totalValue / totalCount : 0;
+	}
+
+	/**
+	 * Return the value at or below which the given percentage of recorded values fall. The value is reported 
+	 * as the upper bound of the bucket it was counted in but never exceeds the highest recorded value.
+	 * 
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the value at the given percentile, or 0 if no values were recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100: " + percentile);
+		if (totalCount == 0) {
+			return 0;
+		}
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			count += counts[i];
+			if (count >= countAtPercentile) {
+				return Math.min(highestEquivalentValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+		int subBucket = (int) (value >>> shift);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+	}
+
+	private static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int offset = index - SUB_BUCKET_COUNT;
+		int shift = offset / SUB_BUCKET_HALF_COUNT + 1;
+		long subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+		long nextValue = (subBucket + 1) << shift;
+		return (nextValue > 0) ? nextValue - 1 : Long.MAX_VALUE;
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram [count=" + totalCount + ", min=" + getMinValue() + ", mean=" + (long) getMean() 
+				+ ", max=" + maxValue + "]";
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.test.web.server.DefaultMockHttpServletRequestBuilder;
+import org.springframework.test.web.server.MockHttpServletRequestBuilder;
+import org.springframework.test.web.server.MockHttpServletRequestPrototype;
+
+/**
+ * Records latencies and errors per endpoint for the requests performed by a single load generating thread.
+ * Requests are grouped by HTTP method and URL template.
+ * 
+ * @NotThreadSafe
+ */
+class LatencyRecorder {
+
+	private final Map<String, Endpoint> endpoints = new LinkedHashMap<String, Endpoint>();
+
+	private final Endpoint[] endpointsByRequest;
+
+	LatencyRecorder(List<? extends MockHttpServletRequestBuilder> requestBuilders) {
+		endpointsByRequest = new Endpoint[requestBuilders.size()];
+		for (int i = 0; i < endpointsByRequest.length; i++) {
+			String name = getEndpointName(requestBuilders.get(i), i);
+			Endpoint endpoint = endpoints.get(name);
+			if (endpoint == null) {
+				endpoint = new Endpoint();
+				endpoints.put(name, endpoint);
+			}
+			endpointsByRequest[i] = endpoint;
+		}
+	}
+
+	/**
+	 * Record the latency of a successfully performed request.
+	 * @param requestIndex the index of the request builder
+	 * @param latency the latency in nanoseconds
+	 */
+	void recordLatency(int requestIndex, long latency) {
+		endpointsByRequest[requestIndex].histogram.recordValue(latency);
+	}
+
+	/**
+	 * Record the latency of a successfully performed request along with its service time, i.e. the time spent
+	 * processing the request excluding any time it waited to be started.
+	 * @param requestIndex the index of the request builder
+	 * @param latency the latency in nanoseconds measured from the time the request was meant to start
+	 * @param serviceTime the service time in nanoseconds
+	 */
+	void recordLatency(int requestIndex, long latency, long serviceTime) {
+		Endpoint endpoint = endpointsByRequest[requestIndex];
+		endpoint.histogram.recordValue(latency);
+		endpoint.serviceTimeHistogram.recordValue(serviceTime);
+	}
+
+	/**
+	 * Record a request that failed with an unhandled exception.
+	 * @param requestIndex the index of the request builder
+	 */
+	void recordError(int requestIndex) {
+		endpointsByRequest[requestIndex].errorCount++;
+	}
+
+	/**
+	 * Merge the recorded latencies and error counts into the given maps keyed by endpoint name.
+	 */
+	void mergeInto(Map<String, LatencyHistogram> histograms, Map<String, Long> errorCounts) {
+		mergeInto(histograms, null, errorCounts);
+	}
+
+	/**
+	 * Merge the recorded latencies, service times and error counts into the given maps keyed by endpoint name.
+	 * @param serviceTimeHistograms the map to merge service times into, or {@code null} to ignore them
+	 */
+	void mergeInto(Map<String, LatencyHistogram> histograms, 
+				   Map<String, LatencyHistogram> serviceTimeHistograms, 
+				   Map<String, Long> errorCounts) {
+
+		for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+			String name = entry.getKey();
+			Endpoint endpoint = entry.getValue();
+			merge(histograms, name, endpoint.histogram);
+			if (serviceTimeHistograms != null) {
+				merge(serviceTimeHistograms, name, endpoint.serviceTimeHistogram);
+			}
+			Long errorCount = errorCounts.get(name);
+			errorCounts.put(name, (errorCount != null ? errorCount : 0) + endpoint.errorCount);
+		}
+	}
+
+	private static void merge(Map<String, LatencyHistogram> histograms, String name, LatencyHistogram source) {
+		LatencyHistogram histogram = histograms.get(name);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			histograms.put(name, histogram);
+		}
+		histogram.add(source);
+	}
+
+	/**
+	 * Return the name to group the given request under, e.g. "GET /hotels/{id}".
+	 */
+	static String getEndpointName(MockHttpServletRequestBuilder requestBuilder, int requestIndex) {
+		if (requestBuilder instanceof DefaultMockHttpServletRequestBuilder) {
+			DefaultMockHttpServletRequestBuilder builder = (DefaultMockHttpServletRequestBuilder) requestBuilder;
+			return builder.getMethod() + " " + builder.getUrlTemplate();
+		}
+		if (requestBuilder instanceof MockHttpServletRequestPrototype) {
+			MockHttpServletRequestPrototype prototype = (MockHttpServletRequestPrototype) requestBuilder;
+			return prototype.getMethod() + " " + prototype.getUrlTemplate();
+		}
+		return requestBuilder.getClass().getSimpleName() + " #" + requestIndex;
+	}
+
+	private static class Endpoint {
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final LatencyHistogram serviceTimeHistogram = new LatencyHistogram();
+
+		private long errorCount;
+	}
+
+}
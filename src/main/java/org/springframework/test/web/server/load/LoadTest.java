@@ -0,0 +1,184 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.test.web.server.MockHttpServletRequestBuilder;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.util.Assert;
+
+/**
+ * A closed-loop load test that runs a number of virtual users against a {@link MockMvc} instance. Each virtual 
+ * user performs the given requests in turn, starting the next request as soon as the previous one completes,
+ * until the configured duration has elapsed or the configured number of iterations is reached.
+ * 
+ * <p>Use {@code MockMvc.loadTest(..)} to create an instance. For example:
+ * <pre>
+ * LoadTestResult result = mockMvc.loadTest(get("/hotels/{id}", 1), get("/hotels"))
+ *     .virtualUsers(16)
+ *     .duration(30, TimeUnit.SECONDS)
+ *     .run();
+ * </pre>
+ * 
+ * <p>Requests are performed without applying any matchers. Requests failing with an unhandled exception are 
+ * counted as errors and their latency is not recorded.
+ * 
+ */
+public class LoadTest {
+
+	private final MockMvc mockMvc;
+
+	private final List<MockHttpServletRequestBuilder> requestBuilders;
+
+	private int virtualUsers = 1;
+
+	private long duration;
+
+	private long iterations;
+
+	public LoadTest(MockMvc mockMvc, Collection<? extends MockHttpServletRequestBuilder> requestBuilders) {
+		Assert.notNull(mockMvc, "MockMvc is required");
+		Assert.notEmpty(requestBuilders, "At least one request is required");
+		this.mockMvc = mockMvc;
+		this.requestBuilders = new ArrayList<MockHttpServletRequestBuilder>(requestBuilders);
+	}
+
+	/**
+	 * Set the number of virtual users, i.e. threads performing requests concurrently. The default is 1. 
+	 */
+	public LoadTest virtualUsers(int virtualUsers) {
+		Assert.isTrue(virtualUsers > 0, "At least one virtual user is required");
+		this.virtualUsers = virtualUsers;
+		return this;
+	}
+
+	/**
+	 * Run the test for the given duration.
+	 */
+	public LoadTest duration(long duration, TimeUnit unit) {
+		Assert.isTrue(duration > 0, "Duration must be greater than 0");
+		this.duration = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * Stop each virtual user after it has performed the given number of requests. If a duration is configured
+	 * as well, the test stops at whichever limit is reached first.
+	 */
+	public LoadTest iterations(long iterations) {
+		Assert.isTrue(iterations > 0, "Iterations must be greater than 0");
+		this.iterations = iterations;
+		return this;
+	}
+
+	/**
+	 * Run the load test and wait for all virtual users to complete.
+	 */
+	public LoadTestResult run() {
+		Assert.state(duration > 0 || iterations > 0, "Either a duration or a number of iterations is required");
+
+		ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+		try {
+			CountDownLatch startSignal = new CountDownLatch(1);
+			List<Future<LatencyRecorder>> futures = new ArrayList<Future<LatencyRecorder>>();
+			for (int i = 0; i < virtualUsers; i++) {
+				futures.add(executor.submit(new VirtualUser(i, startSignal)));
+			}
+
+			long startTime = System.nanoTime();
+			startSignal.countDown();
+
+			Map<String, LatencyHistogram> histograms = new HashMap<String, LatencyHistogram>();
+			Map<String, Long> errorCounts = new HashMap<String, Long>();
+			for (Future<LatencyRecorder> future : futures) {
+				future.get().mergeInto(histograms, errorCounts);
+			}
+
+			return new LoadTestResult(System.nanoTime() - startTime, histograms, errorCounts);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running load test", ex);
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Load test failed", ex.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Performs requests in a loop, each virtual user starting at a different request.
+	 */
+	private class VirtualUser implements Callable<LatencyRecorder> {
+
+		private final int userIndex;
+
+		private final CountDownLatch startSignal;
+
+		public VirtualUser(int userIndex, CountDownLatch startSignal) {
+			this.userIndex = userIndex;
+			this.startSignal = startSignal;
+		}
+
+		public LatencyRecorder call() throws InterruptedException {
+			LatencyRecorder recorder = new LatencyRecorder(requestBuilders);
+			int requestCount = requestBuilders.size();
+			long maxIterations = (iterations > 0) ? iterations : Long.MAX_VALUE;
+
+			startSignal.await();
+			long now = System.nanoTime();
+			long deadline = now + duration;
+
+			for (long i = 0; i < maxIterations; i++) {
+				if (duration > 0 && now - deadline >= 0) {
+					break;
+				}
+				int requestIndex = (int) ((userIndex + i) % requestCount);
+				long start = now;
+				try {
+					mockMvc.perform(requestBuilders.get(requestIndex));
+					now = System.nanoTime();
+					recorder.recordLatency(requestIndex, now - start);
+				}
+				catch (AssertionError error) {
+					now = System.nanoTime();
+					recorder.recordError(requestIndex);
+				}
+				catch (RuntimeException ex) {
+					now = System.nanoTime();
+					recorder.recordError(requestIndex);
+				}
+			}
+			return recorder;
+		}
+	}
+
+}
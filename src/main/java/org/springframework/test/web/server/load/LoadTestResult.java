@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * The outcome of a load test with throughput and latency figures per endpoint. Endpoints are identified by 
+ * HTTP method and URL template, e.g. "GET /hotels/{id}". Latencies are in nanoseconds. 
+ * 
+ * <p>For a {@link ConstantRateLoadTest} latencies are measured from the time each request was scheduled to
+ * start and therefore include any time spent waiting for an earlier request to complete. The time spent 
+ * processing requests alone is available separately as service time. For a closed-loop {@link LoadTest}
+ * latency and service time are the same.
+ * 
+ * <p>Use {@link #toString()} for a table with the count, error count, throughput and latency percentiles 
+ * (p50, p90, p99, p99.9 and max) of each endpoint.
+ * 
+ */
+public class LoadTestResult {
+
+	private static final double[] PERCENTILES = new double[] { 50, 90, 99, 99.9 };
+
+	private final long elapsedTime;
+
+	private final Map<String, LatencyHistogram> histograms;
+
+	private final Map<String, LatencyHistogram> serviceTimeHistograms;
+
+	private final Map<String, Long> errorCounts;
+
+	LoadTestResult(long elapsedTime, Map<String, LatencyHistogram> histograms, Map<String, Long> errorCounts) {
+		this(elapsedTime, histograms, histograms, errorCounts);
+	}
+
+	LoadTestResult(long elapsedTime, 
+				   Map<String, LatencyHistogram> histograms, 
+				   Map<String, LatencyHistogram> serviceTimeHistograms, 
+				   Map<String, Long> errorCounts) {
+		this.elapsedTime = elapsedTime;
+		this.histograms = Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(histograms));
+		this.serviceTimeHistograms = (serviceTimeHistograms != histograms) ? 
+				Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(serviceTimeHistograms)) : 
+				this.histograms;
+		this.errorCounts = Collections.unmodifiableMap(new TreeMap<String, Long>(errorCounts));
+	}
+
+	/**
+	 * Return the time from the start of the first request to the completion of the last one.
+	 */
+	public long getElapsedTime(TimeUnit unit) {
+		return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Return the names of the endpoints requests were performed against, in alphabetical order.
+	 */
+	public Set<String> getEndpoints() {
+		return histograms.keySet();
+	}
+
+	/**
+	 * Return the latencies of successfully performed requests to the given endpoint.
+	 */
+	public LatencyHistogram getHistogram(String endpoint) {
+		LatencyHistogram histogram = histograms.get(endpoint);
+		Assert.notNull(histogram, "No requests to endpoint '" + endpoint + "'. Known endpoints: " + getEndpoints());
+		return histogram;
+	}
+
+	/**
+	 * Return the latencies of successfully performed requests across all endpoints.
+	 */
+	public LatencyHistogram getTotalHistogram() {
+		return getTotal(histograms);
+	}
+
+	/**
+	 * Return the service times of successfully performed requests across all endpoints.
+	 */
+	public LatencyHistogram getTotalServiceTimeHistogram() {
+		return getTotal(serviceTimeHistograms);
+	}
+
+	private static LatencyHistogram getTotal(Map<String, LatencyHistogram> histograms) {
+		LatencyHistogram total = new LatencyHistogram();
+		for (LatencyHistogram histogram : histograms.values()) {
+			total.add(histogram);
+		}
+		return total;
+	}
+
+	/**
+	 * Return the service times of successfully performed requests to the given endpoint.
+	 */
+	public LatencyHistogram getServiceTimeHistogram(String endpoint) {
+		LatencyHistogram histogram = serviceTimeHistograms.get(endpoint);
+		Assert.notNull(histogram, "No requests to endpoint '" + endpoint + "'. Known endpoints: " + getEndpoints());
+		return histogram;
+	}
+
+	/**
+	 * Return the number of requests to the given endpoint that failed with an unhandled exception.
+	 */
+	public long getErrorCount(String endpoint) {
+		Long count = errorCounts.get(endpoint);
+		return (count != null) ? count : 0;
+	}
+
+	/**
+	 * Return the number of requests that failed with an unhandled exception across all endpoints.
+	 */
+	public long getErrorCount() {
+		long count = 0;
+		for (Long endpointCount : errorCounts.values()) {
+			count += endpointCount;
+		}
+		return count;
+	}
+
+	/**
+	 * Return the number of successfully performed requests per second to the given endpoint.
+	 */
+	public double getThroughput(String endpoint) {
+		return getThroughput(getHistogram(endpoint).getTotalCount());
+	}
+
+	/**
+	 * Return the number of successfully performed requests per second across all endpoints.
+	 */
+	public double getThroughput() {
+		return getThroughput(getTotalHistogram().getTotalCount());
+	}
+
+	private double getThroughput(long count) {
+		return (elapsedTime > 0) ? count * 1e9 / elapsedTime : 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%nElapsed time: %.3f s%n", elapsedTime / 1e9));
+		appendTable(sb, "Latency", histograms);
+		if (serviceTimeHistograms != histograms) {
+			appendTable(sb, "Service time", serviceTimeHistograms);
+		}
+		return sb.toString();
+	}
+
+	private void appendTable(StringBuilder sb, String title, Map<String, LatencyHistogram> histograms) {
+		sb.append(String.format("%n%s:%n", title));
+		sb.append(String.format("%-40s %10s %8s %10s %10s %10s %10s %10s %10s%n", "Endpoint", "Count", "Errors", 
+				"Req/s", "p50 (ms)", "p90 (ms)", "p99 (ms)", "p99.9 (ms)", "Max (ms)"));
+		for (String endpoint : getEndpoints()) {
+			appendRow(sb, endpoint, histograms.get(endpoint), getErrorCount(endpoint));
+		}
+		appendRow(sb, "Total", getTotal(histograms), getErrorCount());
+	}
+
+	private void appendRow(StringBuilder sb, String label, LatencyHistogram histogram, long errorCount) {
+		sb.append(String.format("%-40s %10d %8d %10.1f", label, histogram.getTotalCount(), errorCount, 
+				getThroughput(histogram.getTotalCount())));
+		for (double percentile : PERCENTILES) {
+			sb.append(String.format(" %10.3f", histogram.getValueAtPercentile(percentile) / 1e6));
+		}
+		sb.append(String.format(" %10.3f%n", histogram.getMaxValue() / 1e6));
+	}
+
+}
@@ -21,12 +21,10 @@ import static org.springframework.test.web.AssertionErrors.assertTrue;
 
 import java.lang.reflect.Method;
 
-import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.MvcResultMatcher;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.ModelAndView;
 
 /**
  * Matchers for applying assertions on the handler matched to a request.
@@ -67,11 +65,8 @@ public abstract class HandlerMatchers {
 
 	private abstract static class HandlerResultMatcher implements MvcResultMatcher {
 
-		public final void match(MockHttpServletRequest request, 
-								MockHttpServletResponse response, 
-								Object handler, 
-								Exception handlerException,
-								ModelAndView mav) {
+		public final void match(MvcResult result) {
+			Object handler = result.getHandler();
 			assertTrue("No matching handler", handler != null);
 			matchHandler(handler);
 		}
@@ -23,37 +23,39 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.server.DispatchPhase;
+import org.springframework.test.web.server.DispatchTimings;
+import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.MvcResultMatcher;
 import org.springframework.util.Assert;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
 public class LoggingMatcher implements MvcResultMatcher {
 
 	private static final Log logger = LogFactory.getLog(LoggingMatcher.class);
 
-	public void match(MockHttpServletRequest request, 
-					  MockHttpServletResponse response, 
-					  Object handler, 
-					  Exception handlerException,
-					  ModelAndView mav) {
+	public void match(MvcResult result) {
 		
 		StringBuilder sb = new StringBuilder();
 		
-		appendRequest(sb, request);
-		appendHandler(sb, handler, handlerException);
-		appendModelAndView(sb, mav);
-		appendResponse(sb, response);
+		appendRequest(sb, result);
+		appendHandler(sb, result.getHandler(), result.getHandlerException());
+		appendModelAndView(sb, result.getModelAndView());
+		appendResponse(sb, result);
+		appendTimings(sb, result);
 
 		logger.info(sb.toString());
 	}
 
-	private void appendRequest(StringBuilder sb, MockHttpServletRequest request) {
+	private void appendRequest(StringBuilder sb, MvcResult result) {
+		MockHttpServletRequest request = result.getRequest();
 		sb.append("\n\n" + request.getMethod() + " " + request.getRequestURI() + "\n");
 		appendLabelAndValue(sb, "Params", request.getParameterMap());
-		appendLabelAndValue(sb, "Headers", MockRequestMatchers.getHeaderValueMap(request));
+		appendLabelAndValue(sb, "Headers", result.getRequestHeaders());
 	}
 
 	private void appendHandler(StringBuilder sb, Object handler, Exception handlerException) {
@@ -151,24 +153,25 @@ public class LoggingMatcher implements MvcResultMatcher {
 		}
 	}
 
-	private void appendResponse(StringBuilder sb, MockHttpServletResponse response) {
+	private void appendResponse(StringBuilder sb, MvcResult result) {
+		MockHttpServletResponse response = result.getResponse();
 		sb.append("\nResponse:\n");
 		appendLabelAndValue(sb, "status", response.getStatus());
 		appendLabelAndValue(sb, "error message", response.getErrorMessage());
-		appendLabelAndValue(sb, "headers", MockResponseMatchers.getHeaderValueMap(response));
+		appendLabelAndValue(sb, "headers", result.getResponseHeaders());
 		appendLabelAndValue(sb, "content type", response.getContentType());
-		appendResponseBody(sb, response);
+		appendResponseBody(sb, result);
 		appendLabelAndValue(sb, "forwarded URL", response.getForwardedUrl());
 		appendLabelAndValue(sb, "redirected URL", response.getRedirectedUrl());
 		appendLabelAndValue(sb, "included URLs", response.getIncludedUrls());
-		appendLabelAndValue(sb, "cookies", MockResponseMatchers.getCookieValueMap(response));
+		appendLabelAndValue(sb, "cookies", result.getResponseCookies());
 		sb.append("\n");
 	}
 
-	private void appendResponseBody(StringBuilder sb, MockHttpServletResponse response) {
+	private void appendResponseBody(StringBuilder sb, MvcResult result) {
 		String content;
 		try {
-			content = response.getContentAsString();
+			content = result.getResponseBody();
 			
 		} catch (UnsupportedEncodingException e) {
 			String message = "Failed to get the response content: ";
@@ -187,4 +190,33 @@ public class LoggingMatcher implements MvcResultMatcher {
 		}
 	}
 
+	private void appendTimings(StringBuilder sb, MvcResult result) {
+		DispatchTimings timings = result.getTimings();
+		sb.append("\nTimings (ms):\n");
+		appendLabelAndValue(sb, "total", formatTime(timings.getTotalTime()));
+		for (DispatchPhase phase : DispatchPhase.values()) {
+			long time = timings.getPhaseTime(phase);
+			if (time > 0) {
+				appendLabelAndValue(sb, phase.name().toLowerCase().replace('_', ' '), formatTime(time));
+			}
+		}
+		HandlerInterceptor[] interceptors = result.getInterceptors();
+		if (interceptors != null) {
+			for (int i = 0; i < interceptors.length; i++) {
+				appendLabelAndValue(sb, "interceptor " + i, interceptors[i].getClass().getSimpleName() 
+						+ " preHandle=" + formatTime(timings.getPreHandleTime(i)) 
+						+ " postHandle=" + formatTime(timings.getPostHandleTime(i)));
+			}
+		}
+		if (result.getAllocatedBytes() != -1) {
+			sb.append("\nAllocation:\n");
+			appendLabelAndValue(sb, "bytes", result.getAllocatedBytes());
+		}
+		sb.append("\n");
+	}
+
+	private static String formatTime(long nanos) {
+		return String.format("%.3f", nanos / 1e6);
+	}
+
 }
@@ -18,18 +18,10 @@ package org.springframework.test.web.server.matcher;
 
 import static org.springframework.test.web.AssertionErrors.assertEquals;
 
-import java.util.Enumeration;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import javax.servlet.ServletRequest;
-import javax.servlet.http.HttpSession;
-
 import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.AssertionErrors;
+import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.MvcResultMatcher;
-import org.springframework.web.servlet.ModelAndView;
 
 /**
  * Matchers assertions on a {@link MockHttpServletRequest}.
@@ -49,17 +41,17 @@ public abstract class MockRequestMatchers {
 	}
 
 	public static MvcResultMatcher requestAttributesPresent(final String...names) {
-		return new MockRequestResultMatcher() {
-			protected void matchMockRequest(MockHttpServletRequest request) {
-				AssertionErrors.assertNameValuesPresent("Request attribute", getRequestAttributeMap(request), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Request attribute", result.getRequestAttributes(), names);
 			}
 		};
 	}
 	
 	public static MvcResultMatcher requestAttributesNotPresent(final String...names) {
-		return new MockRequestResultMatcher() {
-			protected void matchMockRequest(MockHttpServletRequest request) {
-				AssertionErrors.assertNameValuesNotPresent("Request attribute", getRequestAttributeMap(request), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesNotPresent("Request attribute", result.getRequestAttributes(), names);
 			}
 		};
 	}
@@ -73,62 +65,25 @@ public abstract class MockRequestMatchers {
 	}
 
 	public static MvcResultMatcher sessionAttributesPresent(final String...names) {
-		return new MockRequestResultMatcher() {
-			protected void matchMockRequest(MockHttpServletRequest request) {
-				HttpSession session = request.getSession();
-				AssertionErrors.assertNameValuesPresent("Session attribute", getSessionAttributeMap(session), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Session attribute", result.getSessionAttributes(), names);
 			}
 		};
 	}
 	
 	public static MvcResultMatcher sessionAttributesNotPresent(final String...names) {
-		return new MockRequestResultMatcher() {
-			protected void matchMockRequest(MockHttpServletRequest request) {
-				HttpSession session = request.getSession();
-				AssertionErrors.assertNameValuesNotPresent("Session attribute", getSessionAttributeMap(session), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesNotPresent("Session attribute", result.getSessionAttributes(), names);
 			}
 		};
 	}
 
-	static Map<String, Object> getHeaderValueMap(MockHttpServletRequest request) {
-		Map<String, Object> map = new LinkedHashMap<String, Object>();
-		Enumeration<?> names = request.getHeaderNames();
-		while (names.hasMoreElements()) {
-			String name = (String) names.nextElement();
-			map.put(name, request.getHeader(name));
-		}
-		return map;
-	}
-
-	static Map<String, Object> getRequestAttributeMap(ServletRequest request) {
-		Map<String, Object> map = new LinkedHashMap<String, Object>();
-		Enumeration<?> names = request.getAttributeNames();
-		while (names.hasMoreElements()) {
-			String name = (String) names.nextElement();
-			map.put(name, request.getAttribute(name));
-		}
-		return map;
-	}
-
-	static Map<String, Object> getSessionAttributeMap(HttpSession session) {
-		Map<String, Object> map = new LinkedHashMap<String, Object>();
-		Enumeration<?> names = session.getAttributeNames();
-		while (names.hasMoreElements()) {
-			String name = (String) names.nextElement();
-			map.put(name, session.getAttribute(name));
-		}
-
-		return map;
-	}
-
 	private abstract static class MockRequestResultMatcher implements MvcResultMatcher {
 
-		public final void match(MockHttpServletRequest request, 
-								MockHttpServletResponse response, 
-								Object handler, 
-								Exception handlerException,
-								ModelAndView mav) {
-			matchMockRequest(request);
+		public final void match(MvcResult result) {
+			matchMockRequest(result.getRequest());
 		}
 
 		protected abstract void matchMockRequest(MockHttpServletRequest request);
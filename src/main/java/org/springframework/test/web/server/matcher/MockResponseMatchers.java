@@ -22,19 +22,14 @@ import static org.springframework.test.web.AssertionErrors.fail;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import javax.servlet.http.Cookie;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.AssertionErrors;
+import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.MvcResultMatcher;
 import org.springframework.util.StringUtils;
-import org.springframework.web.servlet.ModelAndView;
 
 /**
  * Matchers for assertions on a {@link MockHttpServletResponse}.
@@ -65,7 +60,8 @@ public abstract class MockResponseMatchers {
 
 	public static MvcResultMatcher contentType(final String contentType) {
 		return new MvcResultMatcher() {
-			public void match(MockHttpServletRequest rq, MockHttpServletResponse response, Object h, Exception e, ModelAndView mav) {
+			public void match(MvcResult result) {
+				MockHttpServletResponse response = result.getResponse();
 				if (StringUtils.hasText(response.getContentType())) {
 					assertEquals("Content type", contentType, response.getContentType());
 				}
@@ -78,17 +74,16 @@ public abstract class MockResponseMatchers {
 	}
 
 	public static MvcResultMatcher responseBody(final String content) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) throws UnsupportedEncodingException {
-				assertEquals("Response body", content, response.getContentAsString());
+		return new ResponseBodyResultMatcher() {
+			protected void matchResponseBody(String body) {
+				assertEquals("Response body", content, body);
 			}
 		};
 	}
 
 	public static MvcResultMatcher responseBodyContains(final String text) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) throws UnsupportedEncodingException {
-				String body = response.getContentAsString();
+		return new ResponseBodyResultMatcher() {
+			protected void matchResponseBody(String body) {
 				assertTrue("Response body <" + body + "> does not contain " + text, body.contains(text));
 			}
 		};
@@ -119,17 +114,17 @@ public abstract class MockResponseMatchers {
 	}
 	
 	public static MvcResultMatcher headersPresent(final String...headerNames) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesPresent("Response header", getHeaderValueMap(response), headerNames);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Response header", result.getResponseHeaders(), headerNames);
 			}
 		};
 	}
 	
 	public static MvcResultMatcher headersNotPresent(final String...headerNames) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesNotPresent("Response header", getHeaderValueMap(response), headerNames);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesNotPresent("Response header", result.getResponseHeaders(), headerNames);
 			}
 		};
 	}
@@ -143,11 +138,11 @@ public abstract class MockResponseMatchers {
 	}
 
 	public static MvcResultMatcher headerValueContains(final String headerName, final String text) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesPresent("Response header", getHeaderValueMap(response), headerName);
-				Object value = response.getHeader(headerName);
-				assertEquals("Header value type", String.class, response.getHeader(headerName).getClass());
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Response header", result.getResponseHeaders(), headerName);
+				Object value = result.getResponseHeaders().get(headerName);
+				assertEquals("Header value type", String.class, value.getClass());
 				assertTrue("Header '" + headerName + "' with value <" + value + "> does not contain <" + text + ">.",
 						((String) value).contains(text));
 			}
@@ -155,17 +150,17 @@ public abstract class MockResponseMatchers {
 	}
 
 	public static MvcResultMatcher cookiesPresent(final String...names) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesPresent("Response cookie", getCookieValueMap(response), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Response cookie", result.getResponseCookies(), names);
 			}
 		};
 	}
 	
 	public static MvcResultMatcher cookiesNotPresent(final String...names) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesNotPresent("Response cookie", getCookieValueMap(response), names);
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesNotPresent("Response cookie", result.getResponseCookies(), names);
 			}
 		};
 	}
@@ -179,41 +174,21 @@ public abstract class MockResponseMatchers {
 	}
 
 	public static MvcResultMatcher cookieValueContains(final String cookieName, final String text) {
-		return new MockResponseResultMatcher() {
-			protected void matchMockResponse(MockHttpServletResponse response) {
-				AssertionErrors.assertNameValuesPresent("Response cookie", getCookieValueMap(response), cookieName);
-				String value = response.getCookie(cookieName).getValue();
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				AssertionErrors.assertNameValuesPresent("Response cookie", result.getResponseCookies(), cookieName);
+				String value = (String) result.getResponseCookies().get(cookieName);
 				assertTrue("Cookie '" + cookieName + "' with value <" + value + "> does not contain <" + text + ">.", 
 						value.contains(text));
 			}
 		};
 	}
 
-	static Map<String, Object> getHeaderValueMap(MockHttpServletResponse response) {
-		Map<String, Object> headers = new LinkedHashMap<String, Object>();
-		for (String name : response.getHeaderNames()) {
-			headers.put(name, response.getHeader(name));
-		}
-		return headers;
-	}
-
-	static Map<String, Object> getCookieValueMap(MockHttpServletResponse response) {
-		Map<String, Object> cookies = new LinkedHashMap<String, Object>();
-		for (Cookie cookie : response.getCookies()) {
-			cookies.put(cookie.getName(), cookie.getValue());
-		}
-		return cookies;
-	}
-
 	private static abstract class MockResponseResultMatcher implements MvcResultMatcher {
 		
-		public void match(MockHttpServletRequest request, 
-						  MockHttpServletResponse response, 
-						  Object handler, 
-						  Exception handlerException,
-						  ModelAndView mav) {
+		public void match(MvcResult result) {
 			try {
-				matchMockResponse(response);
+				matchMockResponse(result.getResponse());
 			} catch (IOException e) {
 				logger.error(e.getMessage(), e);
 				fail("Failed mock response expectation: " + e.getMessage());
@@ -223,4 +198,21 @@ public abstract class MockResponseMatchers {
 		protected abstract void matchMockResponse(MockHttpServletResponse response) throws IOException;
 	}
 
+	/**
+	 * Matches the response body as decoded once by {@link MvcResult#getResponseBody()}.
+	 */
+	private static abstract class ResponseBodyResultMatcher implements MvcResultMatcher {
+		
+		public void match(MvcResult result) {
+			try {
+				matchResponseBody(result.getResponseBody());
+			} catch (UnsupportedEncodingException e) {
+				logger.error(e.getMessage(), e);
+				fail("Failed to decode response body: " + e.getMessage());
+			}
+		}
+		
+		protected abstract void matchResponseBody(String body);
+	}
+
 }
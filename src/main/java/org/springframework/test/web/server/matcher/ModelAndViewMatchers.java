@@ -20,9 +20,8 @@ import static org.springframework.test.web.AssertionErrors.assertEquals;
 import static org.springframework.test.web.AssertionErrors.assertTrue;
 import static org.springframework.test.web.AssertionErrors.fail;
 
-import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.AssertionErrors;
+import org.springframework.test.web.server.MvcResult;
 import org.springframework.test.web.server.MvcResultMatcher;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.ModelAndView;
@@ -104,23 +103,16 @@ public abstract class ModelAndViewMatchers {
 
 	public static MvcResultMatcher viewName(final String viewName) {
 		return new MvcResultMatcher() {
-			public void match(MockHttpServletRequest request, 
-							  MockHttpServletResponse response, 
-							  Object handler, 
-							  Exception handlerException,
-							  ModelAndView mav) {
-				assertEquals("View name", viewName, mav.getViewName());
+			public void match(MvcResult result) {
+				assertEquals("View name", viewName, result.getModelAndView().getViewName());
 			}
 		};
 	}
 
 	private abstract static class ModelAndViewResultMatcher implements MvcResultMatcher {
 
-		public final void match(MockHttpServletRequest request, 
-								MockHttpServletResponse response, 
-								Object handler, 
-								Exception handlerException,
-								ModelAndView mav) {
+		public final void match(MvcResult result) {
+			ModelAndView mav = result.getModelAndView();
 			assertTrue("No ModelAndView", mav != null);
 			matchModelAndView(mav);
 		}
@@ -16,6 +16,9 @@
 
 package org.springframework.test.web.server.matcher;
 
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.test.web.server.DispatchPhase;
 import org.springframework.test.web.server.MvcResultMatcher;
 
 /**
@@ -65,6 +68,35 @@ public class MvcResultMatchers {
 		return ModelAndViewMatchers.modelAttributesPresent(names);
 	}
 
+	/**
+	 * Match the total time spent in the {@code MockDispatcher} against a latency budget, including the limit.
+	 */
+	public static MvcResultMatcher completedWithin(long duration, TimeUnit unit) {
+		return PerformanceMatchers.dispatchTimeAtMost(duration, unit);
+	}
+
+	/**
+	 * Match the time spent invoking the handler against a latency budget, including the limit.
+	 */
+	public static MvcResultMatcher handledWithin(long duration, TimeUnit unit) {
+		return PerformanceMatchers.phaseTimeAtMost(DispatchPhase.HANDLER_INVOCATION, duration, unit);
+	}
+
+	/**
+	 * Match the time spent rendering the view against a latency budget, including the limit.
+	 */
+	public static MvcResultMatcher renderedWithin(long duration, TimeUnit unit) {
+		return PerformanceMatchers.phaseTimeAtMost(DispatchPhase.VIEW_RENDERING, duration, unit);
+	}
+
+	/**
+	 * Match the number of bytes allocated on the dispatching thread while processing the request against an 
+	 * exclusive limit. Fails if the JVM does not support per-thread allocation measurement.
+	 */
+	public static MvcResultMatcher allocatedLessThan(long bytes) {
+		return PerformanceMatchers.allocatedLessThan(bytes);
+	}
+
 	public static MvcResultMatcher loggingMatcher() {
 		return new LoggingMatcher();
 	}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.matcher;
+
+import static org.springframework.test.web.AssertionErrors.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.test.web.server.DispatchPhase;
+import org.springframework.test.web.server.DispatchTimings;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.test.web.server.MvcResultMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Matchers for assertions on the time taken to process a request as recorded in {@link DispatchTimings}, 
+ * and on the memory allocated while processing it.
+ * 
+ */
+public abstract class PerformanceMatchers {
+
+	private PerformanceMatchers() {
+	}
+
+	public static MvcResultMatcher dispatchTimeLessThan(final long duration, final TimeUnit unit) {
+		return new DispatchTimingsResultMatcher() {
+			protected void matchTimings(DispatchTimings timings, MvcResult result) {
+				assertTimeLessThan("Dispatch time", timings.getTotalTime(), duration, unit, timings);
+			}
+		};
+	}
+
+	/**
+	 * Variant of {@link #dispatchTimeLessThan(long, TimeUnit)} that also matches a time equal to the limit.
+	 */
+	public static MvcResultMatcher dispatchTimeAtMost(final long duration, final TimeUnit unit) {
+		return new DispatchTimingsResultMatcher() {
+			protected void matchTimings(DispatchTimings timings, MvcResult result) {
+				assertTimeAtMost("Dispatch time", timings.getTotalTime(), duration, unit, timings);
+			}
+		};
+	}
+
+	public static MvcResultMatcher phaseTimeLessThan(final DispatchPhase phase, final long duration, final TimeUnit unit) {
+		return new DispatchTimingsResultMatcher() {
+			protected void matchTimings(DispatchTimings timings, MvcResult result) {
+				String label = "Time in phase " + phase;
+				assertTimeLessThan(label, timings.getPhaseTime(phase), duration, unit, timings);
+			}
+		};
+	}
+
+	/**
+	 * Variant of {@link #phaseTimeLessThan(DispatchPhase, long, TimeUnit)} that also matches a time equal to 
+	 * the limit.
+	 */
+	public static MvcResultMatcher phaseTimeAtMost(final DispatchPhase phase, final long duration, final TimeUnit unit) {
+		return new DispatchTimingsResultMatcher() {
+			protected void matchTimings(DispatchTimings timings, MvcResult result) {
+				String label = "Time in phase " + phase;
+				assertTimeAtMost(label, timings.getPhaseTime(phase), duration, unit, timings);
+			}
+		};
+	}
+
+	/**
+	 * Match the combined {@code preHandle} and {@code postHandle} time of mapped interceptors of the given type.
+	 */
+	public static MvcResultMatcher interceptorTimeLessThan(final Class<? extends HandlerInterceptor> interceptorType, 
+														   final long duration, final TimeUnit unit) {
+		return new DispatchTimingsResultMatcher() {
+			protected void matchTimings(DispatchTimings timings, MvcResult result) {
+				HandlerInterceptor[] interceptors = result.getInterceptors();
+				long time = 0;
+				boolean found = false;
+				for (int i = 0; interceptors != null && i < interceptors.length; i++) {
+					if (interceptorType.isInstance(interceptors[i])) {
+						time += timings.getPreHandleTime(i) + timings.getPostHandleTime(i);
+						found = true;
+					}
+				}
+				assertTrue("No interceptor of type " + interceptorType.getName() + " was mapped", found);
+				String label = "Time in " + interceptorType.getSimpleName();
+				assertTimeLessThan(label, time, duration, unit, timings);
+			}
+		};
+	}
+
+	/**
+	 * Match the number of bytes allocated on the dispatching thread while processing the request.
+	 * Fails if the JVM does not support per-thread allocation measurement.
+	 * @see MvcResult#getAllocatedBytes()
+	 */
+	public static MvcResultMatcher allocatedLessThan(final long bytes) {
+		return new MvcResultMatcher() {
+			public void match(MvcResult result) {
+				long allocated = result.getAllocatedBytes();
+				assertTrue("Allocation measurement is not supported by this JVM", allocated != -1);
+				assertTrue("Allocated bytes <" + allocated + "> exceeded limit <" + bytes + ">", allocated < bytes);
+			}
+		};
+	}
+
+	private static void assertTimeLessThan(String label, long nanos, long duration, TimeUnit unit, 
+										   DispatchTimings timings) {
+		long limit = unit.toNanos(duration);
+		assertTrue(label + " <" + nanos + "ns> exceeded limit <" + limit + "ns>. Timings: " + timings, nanos < limit);
+	}
+
+	private static void assertTimeAtMost(String label, long nanos, long duration, TimeUnit unit, 
+										 DispatchTimings timings) {
+		long limit = unit.toNanos(duration);
+		assertTrue(label + " <" + nanos + "ns> exceeded limit <" + limit + "ns>. Timings: " + timings, nanos <= limit);
+	}
+
+	private abstract static class DispatchTimingsResultMatcher implements MvcResultMatcher {
+
+		public final void match(MvcResult result) {
+			matchTimings(result.getTimings(), result);
+		}
+
+		protected abstract void matchTimings(DispatchTimings timings, MvcResult result);
+	}
+
+}
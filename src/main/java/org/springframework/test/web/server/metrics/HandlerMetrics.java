@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.metrics;
+
+/**
+ * Call count, error count and cumulative dispatch time of the requests mapped to a single handler.
+ * 
+ * @ThreadSafe
+ */
+public class HandlerMetrics {
+
+	private final StripedCounter callCount = new StripedCounter();
+
+	private final StripedCounter errorCount = new StripedCounter();
+
+	private final StripedCounter totalTime = new StripedCounter();
+
+	void record(long time, boolean error) {
+		callCount.increment();
+		totalTime.add(time);
+		if (error) {
+			errorCount.increment();
+		}
+	}
+
+	void reset() {
+		callCount.reset();
+		errorCount.reset();
+		totalTime.reset();
+	}
+
+	/**
+	 * Return the number of requests mapped to the handler.
+	 */
+	public long getCallCount() {
+		return callCount.sum();
+	}
+
+	/**
+	 * Return the number of requests for which the handler or its interceptors raised an exception,
+	 * whether it was resolved or not.
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	/**
+	 * Return the cumulative time in nanoseconds spent processing requests mapped to the handler.
+	 */
+	public long getTotalTime() {
+		return totalTime.sum();
+	}
+
+	/**
+	 * Return the mean time in nanoseconds spent processing a request mapped to the handler.
+	 */
+	public double getMeanTime() {
+		long count = getCallCount();
+		return (count != 0) ? (double) getTotalTime() / count : 0;
+	}
+
+	@Override
+	public String toString() {
+		return "HandlerMetrics [calls=" + getCallCount() + ", errors=" + getErrorCount() + ", totalTime=" 
+				+ getTotalTime() + "ns]";
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.test.web.server.MockMvcListenerAdapter;
+import org.springframework.test.web.server.MvcResult;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * A {@link MockMvcListenerAdapter} that aggregates {@link HandlerMetrics} per handler across all requests
+ * performed through one or more {@code MockMvc} instances. Metrics are collected per controller class and 
+ * handler {@link Method} or, for other handlers, per handler class, so that a method inherited by several 
+ * controllers is counted separately for each of them. When reported, handler methods are named by controller 
+ * class and method name, e.g. "org.example.HotelController#show", with the parameter types appended for 
+ * overloaded methods, e.g. "org.example.HotelController#show(Long,Model)". Other handlers are named by their 
+ * class name. Requests not mapped to any handler are counted under {@value #NO_HANDLER}. If different handlers 
+ * have the same name, a sequence number is appended to all but one of them, e.g. "org.example.Handler [2]".
+ * 
+ * <p>Counters are striped to keep the overhead of recording low when many threads perform requests.
+ * 
+ * <pre>
+ * HandlerMetricsListener metrics = new HandlerMetricsListener();
+ * MockMvc mockMvc = xmlConfigMvcSetup("classpath:servlet-context.xml").addListeners(metrics).build();
+ * ...
+ * System.out.println(metrics);
+ * </pre>
+ * 
+ * @ThreadSafe
+ */
+public class HandlerMetricsListener extends MockMvcListenerAdapter {
+
+	public static final String NO_HANDLER = "<no handler>";
+
+	private static final HandlerKey NO_HANDLER_KEY = new HandlerKey(null, null);
+
+	private final ConcurrentMap<HandlerKey, HandlerMetrics> metrics = 
+			new ConcurrentHashMap<HandlerKey, HandlerMetrics>();
+
+	@Override
+	public void dispatchCompleted(MvcResult result) {
+		getOrCreateMetrics(result.getHandler()).record(getTime(result), result.getHandlerException() != null);
+	}
+
+	@Override
+	public void dispatchFailed(MvcResult result, Exception exception) {
+		getOrCreateMetrics(result.getHandler()).record(getTime(result), true);
+	}
+
+	/**
+	 * Reset the metrics collected during the warm-up.
+	 */
+	@Override
+	public void warmUpCompleted() {
+		reset();
+	}
+
+	private static long getTime(MvcResult result) {
+		return result.getTimings().getTotalTime();
+	}
+
+	private HandlerMetrics getOrCreateMetrics(Object handler) {
+		HandlerKey key = getHandlerKey(handler);
+		HandlerMetrics handlerMetrics = metrics.get(key);
+		if (handlerMetrics == null) {
+			handlerMetrics = new HandlerMetrics();
+			HandlerMetrics existing = metrics.putIfAbsent(key, handlerMetrics);
+			if (existing != null) {
+				handlerMetrics = existing;
+			}
+		}
+		return handlerMetrics;
+	}
+
+	private static HandlerKey getHandlerKey(Object handler) {
+		if (handler == null) {
+			return NO_HANDLER_KEY;
+		}
+		if (handler instanceof HandlerMethod) {
+			HandlerMethod handlerMethod = (HandlerMethod) handler;
+			return new HandlerKey(handlerMethod.getBeanType(), handlerMethod.getMethod());
+		}
+		return new HandlerKey(handler.getClass(), null);
+	}
+
+	/**
+	 * Return the name to report the metrics of the given handler by.
+	 * @param handlerType the controller class of a handler method, the handler class, or {@code null} for 
+	 * requests not mapped to any handler
+	 * @param method the handler method, or {@code null} for other handlers
+	 */
+	protected String getHandlerName(Class<?> handlerType, Method method) {
+		if (handlerType == null) {
+			return NO_HANDLER;
+		}
+		if (method == null) {
+			return handlerType.getName();
+		}
+		String name = handlerType.getName() + "#" + method.getName();
+		return isOverloaded(handlerType, method) ? name + getParameterTypeNames(method) : name;
+	}
+
+	private static boolean isOverloaded(Class<?> handlerType, Method method) {
+		for (Method candidate : ReflectionUtils.getAllDeclaredMethods(handlerType)) {
+			if (candidate.getName().equals(method.getName()) 
+					&& !Arrays.equals(candidate.getParameterTypes(), method.getParameterTypes())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getParameterTypeNames(Method method) {
+		StringBuilder sb = new StringBuilder("(");
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i != 0) {
+				sb.append(",");
+			}
+			sb.append(parameterTypes[i].getSimpleName());
+		}
+		return sb.append(")").toString();
+	}
+
+	/**
+	 * Return the metrics collected so far keyed by handler name, in alphabetical order.
+	 */
+	public Map<String, HandlerMetrics> getMetrics() {
+		Map<String, HandlerMetrics> result = new TreeMap<String, HandlerMetrics>();
+		for (Map.Entry<HandlerKey, HandlerMetrics> entry : metrics.entrySet()) {
+			HandlerKey key = entry.getKey();
+			String name = getHandlerName(key.handlerType, key.method);
+			String uniqueName = name;
+			for (int i = 2; result.containsKey(uniqueName); i++) {
+				uniqueName = name + " [" + i + "]";
+			}
+			result.put(uniqueName, entry.getValue());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Return the metrics collected so far for the given handler name, or {@code null} if there are none.
+	 */
+	public HandlerMetrics getMetrics(String handlerName) {
+		return getMetrics().get(handlerName);
+	}
+
+	/**
+	 * Reset all collected metrics to 0.
+	 */
+	public void reset() {
+		for (HandlerMetrics handlerMetrics : metrics.values()) {
+			handlerMetrics.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%n%-60s %10s %8s %14s %12s%n", "Handler", "Calls", "Errors", "Total (ms)", "Mean (ms)"));
+		for (Map.Entry<String, HandlerMetrics> entry : getMetrics().entrySet()) {
+			HandlerMetrics handlerMetrics = entry.getValue();
+			sb.append(String.format("%-60s %10d %8d %14.3f %12.3f%n", entry.getKey(), handlerMetrics.getCallCount(), 
+					handlerMetrics.getErrorCount(), handlerMetrics.getTotalTime() / 1e6, 
+					handlerMetrics.getMeanTime() / 1e6));
+		}
+		return sb.toString();
+	}
+
+	private static class HandlerKey {
+
+		private final Class<?> handlerType;
+
+		private final Method method;
+
+		public HandlerKey(Class<?> handlerType, Method method) {
+			this.handlerType = handlerType;
+			this.method = method;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof HandlerKey)) {
+				return false;
+			}
+			HandlerKey otherKey = (HandlerKey) other;
+			return (ObjectUtils.nullSafeEquals(handlerType, otherKey.handlerType) 
+					&& ObjectUtils.nullSafeEquals(method, otherKey.method));
+		}
+
+		@Override
+		public int hashCode() {
+			return ObjectUtils.nullSafeHashCode(handlerType) * 31 + ObjectUtils.nullSafeHashCode(method);
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter for frequent concurrent updates and infrequent reads. Updates are spread over a number of cells 
+ * selected by thread, each on its own cache line, so threads rarely contend on the same memory location. 
+ * The value of the counter is the sum of all cells.
+ * 
+ * @ThreadSafe
+ */
+public class StripedCounter {
+
+	private static final int STRIPE_COUNT = 
+		Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
+	/** Number of longs per cell, so that cells lie on separate 64-byte cache lines. */
+	private static final int CELL_SIZE = 8;
+
+	private final AtomicLongArray cells = new AtomicLongArray(STRIPE_COUNT * CELL_SIZE);
+
+	public void increment() {
+		add(1);
+	}
+
+	public void add(long value) {
+		cells.addAndGet(getCellIndex(), value);
+	}
+
+	/**
+	 * Return the current sum of all cells. The result is not an atomic snapshot if updates happen concurrently.
+	 */
+	public long sum() {
+		long sum = 0;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			sum += cells.get(i * CELL_SIZE);
+		}
+		return sum;
+	}
+
+	/**
+	 * Reset all cells to 0. Updates happening concurrently may or may not be retained.
+	 */
+	public void reset() {
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			cells.set(i * CELL_SIZE, 0);
+		}
+	}
+
+	private static int getCellIndex() {
+		long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		int stripe = (int) (hash >>> 32) & (STRIPE_COUNT - 1);
+		return stripe * CELL_SIZE;
+	}
+
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+
+/**
+ * Measures the time taken to instantiate, populate, and initialize each bean of an application context. 
+ * Registered with the context as a {@link BeanFactoryPostProcessor} before it is refreshed, it adds itself 
+ * as the first bean post processor so that post processor beans are measured too.
+ * 
+ * <p>The time of a bean excludes the time spent creating other beans while it is being created, so that 
+ * the times of all beans add up to the total time spent creating beans. Only the first creation of each bean 
+ * definition is measured, since the bean factory skips the before-instantiation callback when creating a 
+ * bean again, e.g. another instance of a prototype.
+ * 
+ * <p>Once {@link #stop() stopped}, e.g. after the context has been refreshed, beans created later, such as 
+ * lazy beans created on first use, are no longer measured.
+ * 
+ */
+class BeanCreationTimer extends InstantiationAwareBeanPostProcessorAdapter implements BeanFactoryPostProcessor {
+
+	private final ThreadLocal<List<Creation>> creations = new ThreadLocal<List<Creation>>() {
+		@Override
+		protected List<Creation> initialValue() {
+			return new ArrayList<Creation>();
+		}
+	};
+
+	private final Map<String, Long> creationTimes = new HashMap<String, Long>();
+
+	private volatile boolean stopped;
+
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		beanFactory.addBeanPostProcessor(this);
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+		if (stopped) {
+			return null;
+		}
+		creations.get().add(new Creation(beanName, System.nanoTime()));
+		return null;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if (stopped) {
+			creations.remove();
+			return bean;
+		}
+		long now = System.nanoTime();
+		List<Creation> stack = creations.get();
+		int index = stack.size() - 1;
+		while (index >= 0 && !stack.get(index).beanName.equals(beanName)) {
+			index--;
+		}
+		if (index < 0) {
+			// e.g. an object obtained from a FactoryBean, or a bean created again
+			return bean;
+		}
+		Creation creation = stack.get(index);
+		// Drop the entries of nested creations that failed or did not complete normally
+		while (stack.size() > index) {
+			stack.remove(stack.size() - 1);
+		}
+		long elapsed = now - creation.startTime;
+		addCreationTime(beanName, elapsed - creation.nestedTime);
+		if (!stack.isEmpty()) {
+			stack.get(stack.size() - 1).nestedTime += elapsed;
+		}
+		return bean;
+	}
+
+	/**
+	 * Stop measuring. Bean creations that are still in progress are not recorded.
+	 */
+	public void stop() {
+		this.stopped = true;
+	}
+
+	private synchronized void addCreationTime(String beanName, long time) {
+		Long previous = creationTimes.get(beanName);
+		creationTimes.put(beanName, (previous != null) ? previous + time : time);
+	}
+
+	/**
+	 * Return a snapshot of the creation times measured so far, keyed by bean name.
+	 */
+	public synchronized Map<String, Long> getCreationTimes() {
+		return new HashMap<String, Long>(creationTimes);
+	}
+
+	private static class Creation {
+
+		private final String beanName;
+
+		private final long startTime;
+
+		private long nestedTime;
+
+		public Creation(String beanName, long startTime) {
+			this.beanName = beanName;
+			this.startTime = startTime;
+		}
+	}
+
+}
@@ -16,6 +16,13 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import javax.servlet.RequestDispatcher;
 
 import org.springframework.context.ApplicationContextInitializer;
@@ -24,6 +31,8 @@ import org.springframework.core.io.FileSystemResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.mock.web.MockRequestDispatcher;
 import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.server.MockMvcListener;
+import org.springframework.util.Assert;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -37,13 +46,40 @@ public class ConfigurableContextMockMvcBuilder extends ContextMockMvcBuilder {
 
 	private final ConfigurableWebApplicationContext applicationContext;
 	
+	private final Object[] configSources;
+
 	private String webResourceBasePath = "";
 
 	private ResourceLoader webResourceLoader = new FileSystemResourceLoader();
 	
+	private boolean isClasspathRelative;
+
+	private String[] activeProfiles;
+
+	private final List<ApplicationContextInitializer<ConfigurableWebApplicationContext>> initializers = 
+		new ArrayList<ApplicationContextInitializer<ConfigurableWebApplicationContext>>();
+
+	private WebApplicationContextCache contextCache;
+
+	private BeanCreationTimer beanCreationTimer;
+
+	private Class<?>[] lazyInitEagerTypes;
+
 	protected ConfigurableContextMockMvcBuilder(ConfigurableWebApplicationContext applicationContext) {
+		this(applicationContext, (Object[]) null);
+	}
+
+	/**
+	 * Create a builder for the given context.
+	 * 
+	 * @param configSources the configuration the context is loaded from, such as config locations or 
+	 * configuration classes; identifies the context when it is cached 
+	 */
+	protected ConfigurableContextMockMvcBuilder(ConfigurableWebApplicationContext applicationContext, 
+												Object... configSources) {
 		super(applicationContext);
 		this.applicationContext = applicationContext;
+		this.configSources = configSources;
 	}
 
 	/**
@@ -58,11 +94,12 @@ public class ConfigurableContextMockMvcBuilder extends ContextMockMvcBuilder {
 	public ConfigurableContextMockMvcBuilder configureWarRootDir(String warRootDir, boolean isClasspathRelative) {
 		this.webResourceBasePath = warRootDir;
 		this.webResourceLoader = isClasspathRelative ? new DefaultResourceLoader() : new FileSystemResourceLoader();
+		this.isClasspathRelative = isClasspathRelative;
 		return this;
 	}
 	
 	public ConfigurableContextMockMvcBuilder activateProfiles(String...profiles) {
-		applicationContext.getEnvironment().setActiveProfiles(profiles);
+		this.activeProfiles = profiles;
 		return this;
 	}
 	
@@ -71,13 +108,116 @@ public class ConfigurableContextMockMvcBuilder extends ContextMockMvcBuilder {
 			ConfigurableContextMockMvcBuilder applyInitializers(ApplicationContextInitializer<T>... initializers) {
 		
 		for (ApplicationContextInitializer<T> initializer : initializers) {
-			initializer.initialize((T) applicationContext);
+			this.initializers.add((ApplicationContextInitializer<ConfigurableWebApplicationContext>) initializer);
 		}
 		return this;
 	}
-	
+
+	/**
+	 * Mark all beans lazy except Spring MVC infrastructure components such as handler mappings, handler 
+	 * adapters, and view resolvers, and beans registered with the infrastructure role. Controllers are 
+	 * created along with the beans they depend on when the first request is mapped to them. This reduces 
+	 * startup time for large configurations of which a test uses only a small part.
+	 * 
+	 * <p>Handler mappings declared as beans that extend {@code AbstractUrlHandlerMapping}, such as 
+	 * {@code DefaultAnnotationHandlerMapping} and {@code BeanNameUrlHandlerMapping}, are set to initialize 
+	 * their handlers lazily. The default handler mappings used when the configuration declares none are not 
+	 * beans and still create all controllers they detect when the {@code MockMvc} is built.
+	 * 
+	 * <p>Beans that must do work on startup, e.g. to schedule tasks or to listen for messages, should be 
+	 * listed as eager types. Types are matched without creating beans, so a {@code FactoryBean} is matched by 
+	 * the object type declared as the type argument of its class, e.g. {@code FactoryBean<Foo>}.
+	 * 
+	 * @param eagerTypes types of additional beans to create on startup
+	 */
+	public ConfigurableContextMockMvcBuilder lazyInitBeans(Class<?>... eagerTypes) {
+		this.lazyInitEagerTypes = eagerTypes;
+		return this;
+	}
+
+	/**
+	 * Obtain the context from the {@linkplain WebApplicationContextCache#getSharedInstance() shared cache}, 
+	 * and create and cache it only if no other builder has created one with the same configuration, active 
+	 * profiles, initializers, web application root directory, and lazy initialization settings. 
+	 * 
+	 * <p>The context, including the state of its singletons, is then shared with other tests that use the 
+	 * same configuration.
+	 * 
+	 * <p>Initializers are compared with {@code equals}, so a context is only shared between builders with 
+	 * initializers that implement {@code equals} and {@code hashCode} based on their state, or with the same 
+	 * initializer instances. Initializers are applied only when the context is created, not when it is 
+	 * obtained from the cache.
+	 */
+	public ConfigurableContextMockMvcBuilder cacheApplicationContext() {
+		return cacheApplicationContext(WebApplicationContextCache.getSharedInstance());
+	}
+
+	/**
+	 * Variant of {@link #cacheApplicationContext()} with the cache to use.
+	 */
+	public ConfigurableContextMockMvcBuilder cacheApplicationContext(WebApplicationContextCache contextCache) {
+		Assert.state(configSources != null, "The configuration sources of the context are not known");
+		this.contextCache = contextCache;
+		return this;
+	}
+
+	// Covariant overrides, so that the methods of the base class can be chained with the methods above
+
+	@Override
+	public ConfigurableContextMockMvcBuilder addListeners(MockMvcListener... listeners) {
+		super.addListeners(listeners);
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder enableHandlerLookupCache(int maxSize) {
+		super.enableHandlerLookupCache(maxSize);
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder enableHandlerAdapterCache(int maxSize) {
+		super.enableHandlerAdapterCache(maxSize);
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder enableViewCache(int maxSize, Class<?>... dynamicResolverTypes) {
+		super.enableViewCache(maxSize, dynamicResolverTypes);
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder initializeInParallel() {
+		super.initializeInParallel();
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder initializeInParallel(ExecutorService executor) {
+		super.initializeInParallel(executor);
+		return this;
+	}
+
+	@Override
+	public ConfigurableContextMockMvcBuilder recordStartupReport() {
+		super.recordStartupReport();
+		return this;
+	}
+
 	@Override
 	protected WebApplicationContext initApplicationContext() {
+		if (contextCache == null) {
+			return refreshApplicationContext();
+		}
+		return contextCache.getContext(createCacheKey(), new Callable<WebApplicationContext>() {
+			public WebApplicationContext call() {
+				return refreshApplicationContext();
+			}
+		});
+	}
+
+	private WebApplicationContext refreshApplicationContext() {
 		
 		MockServletContext servletContext = new MockServletContext(webResourceBasePath, webResourceLoader) {
 			// For DefaultServletHttpRequestHandler ..
@@ -88,9 +228,42 @@ public class ConfigurableContextMockMvcBuilder extends ContextMockMvcBuilder {
 		};
 		
 		applicationContext.setServletContext(servletContext);
+		if (activeProfiles != null) {
+			applicationContext.getEnvironment().setActiveProfiles(activeProfiles);
+		}
+		for (ApplicationContextInitializer<ConfigurableWebApplicationContext> initializer : initializers) {
+			initializer.initialize(applicationContext);
+		}
+		if (lazyInitEagerTypes != null) {
+			applicationContext.addBeanFactoryPostProcessor(new LazyInitBeanFactoryPostProcessor(lazyInitEagerTypes));
+		}
+		if (isStartupReportEnabled()) {
+			beanCreationTimer = new BeanCreationTimer();
+			applicationContext.addBeanFactoryPostProcessor(beanCreationTimer);
+		}
 		applicationContext.refresh();
 		
 		return applicationContext;
 	}
 
+	/**
+	 * Return the bean creation times measured while refreshing the context, or an empty map if the context 
+	 * was obtained from the cache.
+	 */
+	@Override
+	protected Map<String, Long> getBeanCreationTimes() {
+		if (beanCreationTimer == null) {
+			return super.getBeanCreationTimes();
+		}
+		beanCreationTimer.stop();
+		return beanCreationTimer.getCreationTimes();
+	}
+
+	private Object createCacheKey() {
+		List<String> profiles = (activeProfiles != null) ? Arrays.asList(activeProfiles) : null;
+		List<Class<?>> eagerTypes = (lazyInitEagerTypes != null) ? Arrays.asList(lazyInitEagerTypes) : null;
+		return Arrays.asList(applicationContext.getClass(), Arrays.asList(configSources), profiles, 
+				new ArrayList<Object>(initializers), webResourceBasePath, isClasspathRelative, eagerTypes);
+	}
+
 }
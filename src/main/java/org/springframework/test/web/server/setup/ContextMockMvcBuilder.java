@@ -52,7 +52,7 @@ import org.springframework.web.servlet.view.InternalResourceViewResolver;
  * {@link WebApplicationContext}. 
  * 
  */
-public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
+public class ContextMockMvcBuilder extends AbstractMockMvcBuilder<ContextMockMvcBuilder> {
 
 	private final WebApplicationContext applicationContext;
 
@@ -110,7 +110,7 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 	private <T> List<T> getOrderedBeans(Class<T> beanType) {
 		List<T> components = new ArrayList<T>();
 		Map<String, T> beans =
-			BeanFactoryUtils.beansOfTypeIncludingAncestors(applicationContext, beanType, true, false);
+			BeanFactoryUtils.beansOfTypeIncludingAncestors(getApplicationContext(), beanType, true, false);
 		if (!beans.isEmpty()) {
 			components.addAll(beans.values());
 			OrderComparator.sort(components);
@@ -132,7 +132,7 @@ public class ContextMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	private <T> T getBeanByName(String name, Class<T> requiredType, Class<? extends T> defaultType) {
 		try {
-			return applicationContext.getBean(name, requiredType);
+			return getApplicationContext().getBean(name, requiredType);
 		}
 		catch (NoSuchBeanDefinitionException ex) {
 			return (defaultType != null) ? BeanUtils.instantiate(defaultType) : null;
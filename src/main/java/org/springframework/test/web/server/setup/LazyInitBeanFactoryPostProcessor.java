@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.RequestToViewNameTranslator;
+import org.springframework.web.servlet.ThemeResolver;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+
+/**
+ * Marks all bean definitions lazy except those of Spring MVC infrastructure components, beans with the 
+ * infrastructure role, and beans of additional given types. Controllers detected by the handler mappings 
+ * are registered by bean name and hence, along with the beans they depend on, are created on first use.
+ * 
+ * <p>URL-based handler mappings such as {@code DefaultAnnotationHandlerMapping} and 
+ * {@code BeanNameUrlHandlerMapping} resolve their handlers on initialization by default. They are switched 
+ * to {@linkplain AbstractUrlHandlerMapping#setLazyInitHandlers(boolean) lazy handler initialization}.
+ * 
+ * <p>Bean types are determined without creating any beans, since beans created by a bean factory post 
+ * processor miss the bean post processors registered later. A {@code FactoryBean} is matched by the object 
+ * type declared as the type argument of its class, if any, and otherwise by its own class.
+ * 
+ */
+class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+	private static final List<Class<?>> INFRASTRUCTURE_TYPES = Arrays.<Class<?>>asList(HandlerMapping.class, 
+			HandlerAdapter.class, HandlerExceptionResolver.class, ViewResolver.class, 
+			RequestToViewNameTranslator.class, LocaleResolver.class, ThemeResolver.class, MultipartResolver.class);
+
+	private final List<Class<?>> eagerTypes;
+
+	public LazyInitBeanFactoryPostProcessor(Class<?>... eagerTypes) {
+		this.eagerTypes = new ArrayList<Class<?>>(INFRASTRUCTURE_TYPES);
+		this.eagerTypes.addAll(Arrays.asList(eagerTypes));
+	}
+
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		Set<String> eagerBeanNames = getBeanNames(beanFactory, eagerTypes);
+		Set<String> urlHandlerMappingNames = 
+			getBeanNames(beanFactory, Collections.<Class<?>>singletonList(AbstractUrlHandlerMapping.class));
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+			if (!definition.isLazyInit() && !isEager(beanFactory, beanName, definition, eagerBeanNames)) {
+				definition.setLazyInit(true);
+			}
+			if (urlHandlerMappingNames.contains(beanName)) {
+				definition.getPropertyValues().add("lazyInitHandlers", Boolean.TRUE);
+			}
+		}
+	}
+
+	/**
+	 * Return the names of the beans of the given types. Types are matched without creating any beans, so a 
+	 * {@code FactoryBean} is matched by its own class here rather than by the type of the object it creates. 
+	 * Names of {@code FactoryBean}s matched by their own class are returned without the factory prefix.
+	 */
+	private static Set<String> getBeanNames(ConfigurableListableBeanFactory beanFactory, List<Class<?>> types) {
+		Set<String> beanNames = new HashSet<String>();
+		for (Class<?> type : types) {
+			for (String beanName : beanFactory.getBeanNamesForType(type, true, false)) {
+				if (!beanName.startsWith(BeanFactory.FACTORY_BEAN_PREFIX)) {
+					beanNames.add(beanName);
+				}
+			}
+		}
+		return beanNames;
+	}
+
+	private boolean isEager(ConfigurableListableBeanFactory beanFactory, String beanName, BeanDefinition definition, 
+			Set<String> eagerBeanNames) {
+
+		if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeanNames.contains(beanName)) {
+			return true;
+		}
+		Class<?> objectType = getDeclaredFactoryBeanObjectType(beanFactory, beanName);
+		if (objectType != null) {
+			for (Class<?> eagerType : eagerTypes) {
+				if (eagerType.isAssignableFrom(objectType)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the object type a {@code FactoryBean} declares through the type argument of its class, e.g. 
+	 * {@code Foo} for a class implementing {@code FactoryBean<Foo>}, without creating the {@code FactoryBean}.
+	 * @return the object type, or {@code null} if the bean is not a {@code FactoryBean} created from its class 
+	 * or the type cannot be determined
+	 */
+	private static Class<?> getDeclaredFactoryBeanObjectType(ConfigurableListableBeanFactory beanFactory, 
+			String beanName) {
+
+		BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+		String className = definition.getBeanClassName();
+		if (className == null || definition.getFactoryMethodName() != null) {
+			return null;
+		}
+		try {
+			Class<?> beanClass = ClassUtils.forName(className, beanFactory.getBeanClassLoader());
+			if (!FactoryBean.class.isAssignableFrom(beanClass)) {
+				return null;
+			}
+			return GenericTypeResolver.resolveTypeArgument(beanClass, FactoryBean.class);
+		}
+		catch (ClassNotFoundException ex) {
+			return null;
+		}
+		catch (LinkageError err) {
+			return null;
+		}
+	}
+
+}
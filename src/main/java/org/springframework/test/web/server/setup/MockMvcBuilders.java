@@ -28,7 +28,7 @@ public class MockMvcBuilders {
 		Assert.notEmpty(configurationClasses, "At least one @Configuration class is required");
 		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
 		context.register(configurationClasses);
-		return new ConfigurableContextMockMvcBuilder(context);
+		return new ConfigurableContextMockMvcBuilder(context, (Object[]) configurationClasses);
 	}
 	
 	/**
@@ -44,7 +44,7 @@ public class MockMvcBuilders {
 		Assert.notEmpty(configLocations, "At least one XML config location is required");
 		XmlWebApplicationContext context = new XmlWebApplicationContext();
 		context.setConfigLocations(configLocations);
-		return new ConfigurableContextMockMvcBuilder(context);
+		return new ConfigurableContextMockMvcBuilder(context, (Object[]) configLocations);
 	}
 
 	/**
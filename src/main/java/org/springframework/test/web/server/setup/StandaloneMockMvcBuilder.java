@@ -16,12 +16,16 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -34,12 +38,15 @@ import org.springframework.mock.web.MockServletContext;
 import org.springframework.test.web.server.AbstractMockMvcBuilder;
 import org.springframework.test.web.server.MockMvc;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.method.HandlerMethodSelector;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.HandlerInterceptor;
@@ -51,6 +58,7 @@ import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.handler.MappedInterceptor;
 import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
 import org.springframework.web.servlet.mvc.annotation.ResponseStatusExceptionResolver;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
@@ -68,7 +76,7 @@ import org.springframework.web.servlet.view.DefaultRequestToViewNameTranslator;
  * fixed, no-op {@link View} is used effectively ignoring rendering.
  * 
  */ 
-public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
+public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder<StandaloneMockMvcBuilder> {
 	
 	private final Object[] controllers;
 	
@@ -76,19 +84,43 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 	
 	private Validator validator;
 	
-	private FormattingConversionService conversionService = new DefaultFormattingConversionService();
+	private FormattingConversionService conversionService;
 	
 	private final List<MappedInterceptor> mappedInterceptors = new ArrayList<MappedInterceptor>();
 
 	private List<? extends ViewResolver> viewResolvers;
 
-	private GenericWebApplicationContext applicationContext;
+	private WebApplicationContext applicationContext;
+
+	private StandaloneMvcInfrastructure sharedInfrastructure;
 
 	protected StandaloneMockMvcBuilder(Object[] controllers) {
 		Assert.isTrue(!ObjectUtils.isEmpty(controllers), "At least one controller is required");
 		this.controllers = controllers;
-		this.applicationContext = new GenericWebApplicationContext(new MockServletContext());
-		this.applicationContext.refresh();
+	}
+
+	/**
+	 * Use the given refreshed {@link WebApplicationContext}, e.g. to resolve placeholders in annotations, or 
+	 * to share one context across many standalone builders instead of creating an empty context for each build. 
+	 * The context must have a {@code ServletContext}.
+	 */
+	public StandaloneMockMvcBuilder setApplicationContext(WebApplicationContext applicationContext) {
+		Assert.notNull(applicationContext, "WebApplicationContext is required");
+		Assert.notNull(applicationContext.getServletContext(), "WebApplicationContext must have a ServletContext");
+		this.applicationContext = applicationContext;
+		return this;
+	}
+
+	/**
+	 * Share the empty application context, the handler adapter and exception resolver of the default 
+	 * configuration, and the request mappings detected on controller classes with other builders that use the 
+	 * same {@link StandaloneMvcInfrastructure}, instead of creating them for every build. Components that 
+	 * depend on message converters, a conversion service, a validator, or an application context set on this 
+	 * builder are still created for this build.
+	 */
+	public StandaloneMockMvcBuilder setSharedInfrastructure(StandaloneMvcInfrastructure infrastructure) {
+		this.sharedInfrastructure = infrastructure;
+		return this;
 	}
 
 	public StandaloneMockMvcBuilder setMessageConverters(HttpMessageConverter<?>...messageConverters) {
@@ -98,7 +130,6 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	public StandaloneMockMvcBuilder setValidator(Validator validator) {
 		this.validator = validator;
-		this.applicationContext.getAutowireCapableBeanFactory().initializeBean(validator, "validator");
 		return this;
 	}
 
@@ -146,12 +177,25 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 	
 	@Override
 	protected WebApplicationContext initApplicationContext() {
-		return applicationContext;
+		WebApplicationContext context = this.applicationContext;
+		if (context == null && sharedInfrastructure != null) {
+			context = sharedInfrastructure.getApplicationContext();
+		}
+		if (context == null) {
+			GenericWebApplicationContext genericContext = new GenericWebApplicationContext(new MockServletContext());
+			genericContext.refresh();
+			context = genericContext;
+		}
+		if (validator != null) {
+			context.getAutowireCapableBeanFactory().initializeBean(validator, "validator");
+		}
+		return context;
 	}
 
 	@Override
 	protected List<? extends HandlerMapping> initHandlerMappings() {
-		StaticRequestMappingHandlerMapping mapping = new StaticRequestMappingHandlerMapping();
+		StaticRequestMappingHandlerMapping mapping = new StaticRequestMappingHandlerMapping(
+				(sharedInfrastructure != null) ? sharedInfrastructure.getRequestMappings() : null);
 		mapping.registerHandlers(controllers);
 		mapping.setInterceptors(mappedInterceptors.toArray());
 		return Collections.singletonList(mapping);
@@ -159,29 +203,38 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 
 	@Override
 	protected List<? extends HandlerAdapter> initHandlerAdapters() {
+		if (sharedInfrastructure != null && isDefaultConfiguration()) {
+			return Collections.singletonList(sharedInfrastructure.getHandlerAdapter());
+		}
+		return Collections.singletonList(createHandlerAdapter(messageConverters, conversionService, validator, 
+				getApplicationContext()));
+	}
+
+	static RequestMappingHandlerAdapter createHandlerAdapter(List<HttpMessageConverter<?>> messageConverters,
+			FormattingConversionService conversionService, Validator validator, WebApplicationContext context) {
+		
 		RequestMappingHandlerAdapter adapter = new RequestMappingHandlerAdapter();
 		if (messageConverters != null) {
 			adapter.setMessageConverters(messageConverters);
 		}
 		
 		ConfigurableWebBindingInitializer initializer = new ConfigurableWebBindingInitializer();
-		initializer.setConversionService(conversionService);
+		initializer.setConversionService((conversionService != null) ? 
+				conversionService : new DefaultFormattingConversionService());
 		initializer.setValidator(validator);
 		adapter.setWebBindingInitializer(initializer);
 		
-		adapter.setApplicationContext(applicationContext);	// for SpEL expressions in annotations
+		adapter.setApplicationContext(context);	// for SpEL expressions in annotations
 		adapter.afterPropertiesSet();
 		
-		return Collections.singletonList(adapter);
+		return adapter;
 	}
 
 	@Override
 	protected List<? extends HandlerExceptionResolver> initHandlerExceptionResolvers() {
-		ExceptionHandlerExceptionResolver exceptionResolver = new ExceptionHandlerExceptionResolver();
-		if (messageConverters != null) {
-			exceptionResolver.setMessageConverters( messageConverters);
-		}
-		exceptionResolver.afterPropertiesSet();
+		ExceptionHandlerExceptionResolver exceptionResolver = 
+			(sharedInfrastructure != null && messageConverters == null) ? 
+				sharedInfrastructure.getExceptionResolver() : createExceptionResolver(messageConverters);
 		
 		List<HandlerExceptionResolver> resolvers = new ArrayList<HandlerExceptionResolver>();
 		resolvers.add(exceptionResolver);
@@ -191,6 +244,27 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 		return resolvers;
 	}
 
+	static ExceptionHandlerExceptionResolver createExceptionResolver(
+			List<HttpMessageConverter<?>> messageConverters) {
+		
+		ExceptionHandlerExceptionResolver exceptionResolver = new ExceptionHandlerExceptionResolver();
+		if (messageConverters != null) {
+			exceptionResolver.setMessageConverters( messageConverters);
+		}
+		exceptionResolver.afterPropertiesSet();
+		return exceptionResolver;
+	}
+
+	/**
+	 * Whether message conversion, data binding, validation, and the application context are left at their 
+	 * defaults, in which case the components configured with them are the same for every build and may be 
+	 * shared through a {@link StandaloneMvcInfrastructure}.
+	 */
+	private boolean isDefaultConfiguration() {
+		return (messageConverters == null && conversionService == null && validator == null 
+				&& applicationContext == null);
+	}
+
 	@Override
 	protected List<? extends ViewResolver> initViewResolvers() {
 		viewResolvers = (viewResolvers == null) ? 
@@ -198,7 +272,7 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 				
 		for (Object vr : viewResolvers) {
 			if (vr instanceof ApplicationContextAware) {
-				((ApplicationContextAware) vr).setApplicationContext(applicationContext);
+				((ApplicationContextAware) vr).setApplicationContext(getApplicationContext());
 			}
 		}
 
@@ -216,14 +290,48 @@ public class StandaloneMockMvcBuilder extends AbstractMockMvcBuilder {
 	}
 
 	/**
-	 * Allows registering controller instances.
+	 * Allows registering controller instances. If a cache is given, the request mappings detected on a 
+	 * controller class are cached and reused for later instances of the same class, so that classes are 
+	 * introspected only once rather than for every build. All instances of this class use the default 
+	 * {@code UrlPathHelper} and {@code PathMatcher}, which the detected mappings refer to.
 	 */
 	private static class StaticRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
 		
+		private final ConcurrentMap<Class<?>, Map<Method, RequestMappingInfo>> mappingsByType;
+
+		public StaticRequestMappingHandlerMapping(
+				ConcurrentMap<Class<?>, Map<Method, RequestMappingInfo>> mappingsByType) {
+			this.mappingsByType = mappingsByType;
+		}
+
 		public void registerHandlers(Object...handlers) {
 			for (Object handler : handlers) {
-				super.detectHandlerMethods(handler);
+				Class<?> handlerType = ClassUtils.getUserClass(handler);
+				Map<Method, RequestMappingInfo> mappings = 
+					(mappingsByType != null) ? mappingsByType.get(handlerType) : null;
+				if (mappings == null) {
+					mappings = detectMappings(handlerType);
+					if (mappingsByType != null) {
+						mappingsByType.putIfAbsent(handlerType, mappings);
+					}
+				}
+				for (Map.Entry<Method, RequestMappingInfo> entry : mappings.entrySet()) {
+					registerHandlerMethod(handler, entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		private Map<Method, RequestMappingInfo> detectMappings(final Class<?> handlerType) {
+			Map<Method, RequestMappingInfo> mappings = new LinkedHashMap<Method, RequestMappingInfo>();
+			Set<Method> methods = HandlerMethodSelector.selectMethods(handlerType, new MethodFilter() {
+				public boolean matches(Method method) {
+					return getMappingForMethod(method, handlerType) != null;
+				}
+			});
+			for (Method method : methods) {
+				mappings.put(method, getMappingForMethod(method, handlerType));
 			}
+			return Collections.unmodifiableMap(mappings);
 		}
 	}
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Spring MVC infrastructure that {@link StandaloneMockMvcBuilder}s can share rather than create for every 
+ * build: an empty application context, the handler adapter and exception resolver for the default 
+ * configuration, and the request mappings detected on each controller class.
+ * 
+ * <p>Create one instance for a set of tests, e.g. in a static field of a base test class, pass it to 
+ * {@link StandaloneMockMvcBuilder#setSharedInfrastructure(StandaloneMvcInfrastructure)}, and {@link #close()} 
+ * it when the tests are done. Since the request mappings of every controller class are kept until then, 
+ * the instance should not outlive the class loader of the controllers. 
+ * 
+ * @ThreadSafe
+ */
+public class StandaloneMvcInfrastructure {
+
+	private GenericWebApplicationContext applicationContext;
+
+	private RequestMappingHandlerAdapter handlerAdapter;
+
+	private ExceptionHandlerExceptionResolver exceptionResolver;
+
+	private final ConcurrentMap<Class<?>, Map<Method, RequestMappingInfo>> requestMappings = 
+		new ConcurrentHashMap<Class<?>, Map<Method, RequestMappingInfo>>();
+
+	/**
+	 * Return the shared empty application context, creating it if necessary.
+	 */
+	synchronized WebApplicationContext getApplicationContext() {
+		if (applicationContext == null) {
+			GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+			context.refresh();
+			applicationContext = context;
+		}
+		return applicationContext;
+	}
+
+	/**
+	 * Return the handler adapter for the default configuration, creating it if necessary.
+	 */
+	synchronized RequestMappingHandlerAdapter getHandlerAdapter() {
+		if (handlerAdapter == null) {
+			handlerAdapter = StandaloneMockMvcBuilder.createHandlerAdapter(null, null, null, getApplicationContext());
+		}
+		return handlerAdapter;
+	}
+
+	/**
+	 * Return the exception resolver for the default message converters, creating it if necessary.
+	 */
+	synchronized ExceptionHandlerExceptionResolver getExceptionResolver() {
+		if (exceptionResolver == null) {
+			exceptionResolver = StandaloneMockMvcBuilder.createExceptionResolver(null);
+		}
+		return exceptionResolver;
+	}
+
+	/**
+	 * Return the request mappings detected so far, keyed by controller class.
+	 */
+	ConcurrentMap<Class<?>, Map<Method, RequestMappingInfo>> getRequestMappings() {
+		return requestMappings;
+	}
+
+	/**
+	 * Close the shared application context and release all shared components. Builds that use this instance 
+	 * afterwards create them anew.
+	 */
+	public synchronized void close() {
+		if (applicationContext != null) {
+			applicationContext.close();
+			applicationContext = null;
+		}
+		handlerAdapter = null;
+		exceptionResolver = null;
+		requestMappings.clear();
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.Assert;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * A cache of refreshed {@link WebApplicationContext}s that allows test classes with the same configuration 
+ * to share a context rather than each creating and refreshing their own. 
+ * 
+ * <p>Contexts are evicted in least-recently-used order when the cache is full. Evicted contexts are closed. 
+ * A context that is still in use by a {@code MockMvc} should therefore not be evicted, which is the case as 
+ * long as the cache size is at least the number of configurations used concurrently. 
+ * 
+ * <p>Contexts are also evicted when the old generation of the heap is still nearly full after garbage 
+ * collection, which is checked whenever a context is requested. In that case every context that has not been 
+ * requested since memory was last found low is evicted. A context obtained by a test is therefore kept at 
+ * least until the next request for another configuration, but may be closed after that while memory stays low. 
+ * Disable memory-based eviction with {@link #setMemoryThreshold(double)} if {@code MockMvc} instances are 
+ * kept for longer than that. 
+ * 
+ * <p>Contexts that are still being created are never evicted, so the cache may temporarily hold more than 
+ * its maximum size.
+ * 
+ * <p>If several threads request the same context at the same time, it is created only once. 
+ * 
+ * @ThreadSafe
+ * @see ConfigurableContextMockMvcBuilder#cacheApplicationContext()
+ */
+public class WebApplicationContextCache {
+
+	/** 
+	 * The default maximum number of contexts in the shared cache. May be changed with the 
+	 * {@code spring.test.mvc.contextCache.maxSize} system property.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 8;
+
+	/** 
+	 * The default fraction of the maximum heap still in use after garbage collection that triggers eviction. 
+	 */
+	public static final double DEFAULT_MEMORY_THRESHOLD = 0.85;
+
+	private static final WebApplicationContextCache sharedInstance = 
+		new WebApplicationContextCache(Integer.getInteger("spring.test.mvc.contextCache.maxSize", DEFAULT_MAX_SIZE));
+
+	private static final Log logger = LogFactory.getLog(WebApplicationContextCache.class);
+
+	private final int maxSize;
+
+	private volatile double memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+
+	private final LinkedHashMap<Object, ContextTask> contexts = new LinkedHashMap<Object, ContextTask>(16, 0.75f, true);
+
+	private final List<MemoryPoolMXBean> tenuredPools = new ArrayList<MemoryPoolMXBean>();
+
+	/**
+	 * Return the process-wide cache instance.
+	 */
+	public static WebApplicationContextCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	public WebApplicationContextCache(int maxSize) {
+		this(maxSize, ManagementFactory.getMemoryPoolMXBeans());
+	}
+
+	/**
+	 * Create a cache that checks the given memory pools, for testing purposes. Only heap pools that support 
+	 * usage thresholds are checked. On HotSpot that excludes the eden and survivor spaces, which are often 
+	 * nearly full right after a young generation collection, and leaves the old generation.
+	 */
+	WebApplicationContextCache(int maxSize, List<MemoryPoolMXBean> memoryPools) {
+		Assert.isTrue(maxSize > 0, "Cache size must be greater than 0");
+		this.maxSize = maxSize;
+		for (MemoryPoolMXBean pool : memoryPools) {
+			if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() 
+					&& pool.isCollectionUsageThresholdSupported()) {
+				this.tenuredPools.add(pool);
+			}
+		}
+	}
+
+	/**
+	 * Set the fraction of the maximum size of the old generation heap memory pool that, when still in use 
+	 * after the last garbage collection, causes cached contexts to be evicted. The default is 
+	 * {@value #DEFAULT_MEMORY_THRESHOLD}. A value of 1 or more disables memory-based eviction.
+	 */
+	public void setMemoryThreshold(double memoryThreshold) {
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	/**
+	 * Return the context cached under the given key, or create it with the given factory, cache it, and 
+	 * return it. Exceptions thrown by the factory are propagated and nothing is cached.
+	 * 
+	 * @param key the key identifying the configuration of the context; must implement equals and hashCode
+	 * @param contextFactory creates and refreshes the context
+	 */
+	public WebApplicationContext getContext(Object key, Callable<WebApplicationContext> contextFactory) {
+		ContextTask task;
+		boolean created = false;
+		List<ContextTask> evicted = new ArrayList<ContextTask>();
+		synchronized (contexts) {
+			task = contexts.get(key);
+			if (task == null) {
+				task = new ContextTask(contextFactory);
+				contexts.put(key, task);
+				created = true;
+			}
+			evictEntries(key, evicted);
+			task.requested = true;
+		}
+		closeContexts(evicted);
+
+		if (created) {
+			task.run();
+		}
+		try {
+			return task.get();
+		}
+		catch (ExecutionException ex) {
+			remove(key, task);
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Failed to create WebApplicationContext", cause);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for WebApplicationContext", ex);
+		}
+	}
+
+	public int size() {
+		synchronized (contexts) {
+			return contexts.size();
+		}
+	}
+
+	/**
+	 * Remove and close all cached contexts. Contexts that are still being created are closed as soon as their 
+	 * creation completes.
+	 */
+	public void clear() {
+		List<ContextTask> evicted;
+		synchronized (contexts) {
+			evicted = new ArrayList<ContextTask>(contexts.values());
+			contexts.clear();
+		}
+		closeContexts(evicted);
+	}
+
+	private void remove(Object key, ContextTask task) {
+		synchronized (contexts) {
+			if (contexts.get(key) == task) {
+				contexts.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Remove the least recently used entries beyond the maximum size and, if memory is low, all entries not 
+	 * requested since memory was last found low. Entries still being created and the current entry are kept. Must be 
+	 * called while holding the lock on {@link #contexts}.
+	 */
+	private void evictEntries(Object currentKey, List<ContextTask> evicted) {
+		boolean memoryLow = isMemoryLow();
+		int size = contexts.size();
+		Iterator<Map.Entry<Object, ContextTask>> it = contexts.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Object, ContextTask> entry = it.next();
+			ContextTask task = entry.getValue();
+			if (entry.getKey().equals(currentKey) || !task.isDone()) {
+				continue;
+			}
+			if (size > maxSize || (memoryLow && !task.requested)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Evicting WebApplicationContext for " + entry.getKey());
+				}
+				evicted.add(task);
+				it.remove();
+				size--;
+			}
+		}
+		if (memoryLow) {
+			for (ContextTask task : contexts.values()) {
+				task.requested = false;
+			}
+		}
+	}
+
+	private boolean isMemoryLow() {
+		for (MemoryPoolMXBean pool : tenuredPools) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			if (usage != null && usage.getMax() > 0 && usage.getUsed() > usage.getMax() * memoryThreshold) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void closeContexts(List<ContextTask> tasks) {
+		for (ContextTask task : tasks) {
+			task.evict();
+		}
+	}
+
+	/**
+	 * Creates a context and closes it once it has been both created and evicted, in whichever order.
+	 */
+	private static class ContextTask extends FutureTask<WebApplicationContext> {
+
+		/** Whether the context was requested since the last low memory check, guarded by the cache lock. */
+		private boolean requested;
+
+		private volatile boolean evicted;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		public ContextTask(Callable<WebApplicationContext> contextFactory) {
+			super(contextFactory);
+		}
+
+		public void evict() {
+			this.evicted = true;
+			if (isDone()) {
+				closeContext();
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (this.evicted) {
+				closeContext();
+			}
+		}
+
+		private void closeContext() {
+			if (!closed.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				WebApplicationContext context = get();
+				if (context instanceof ConfigurableApplicationContext) {
+					((ConfigurableApplicationContext) context).close();
+				}
+			}
+			catch (ExecutionException ex) {
+				// Failed to create in the first place, nothing to close
+			}
+			catch (InterruptedException ex) {
+				// Not expected since the task is done
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
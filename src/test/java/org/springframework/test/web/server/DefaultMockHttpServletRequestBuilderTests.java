@@ -40,6 +40,49 @@ public class DefaultMockHttpServletRequestBuilderTests {
         assertEquals("GET", request.getMethod());
     }
 
+    @Test
+    public void uriTemplate() {
+        for (int i = 0; i < 2; i++) {
+            assertEquals("/hotels/42/bookings/21",
+                    MockHttpServletRequestBuilders.get("/hotels/{hotel}/bookings/{booking}", 42, 21)
+                            .buildRequest(servletContext).getRequestURI());
+            assertEquals("/hotels/43/bookings/22",
+                    MockHttpServletRequestBuilders.get("/hotels/{hotel}/bookings/{booking}", 43, 22)
+                            .buildRequest(servletContext).getRequestURI());
+            assertEquals("/hotels",
+                    MockHttpServletRequestBuilders.get("/hotels").buildRequest(servletContext).getRequestURI());
+        }
+    }
+
+    @Test
+    public void freeze() throws Exception {
+        MockHttpServletRequestPrototype prototype = MockHttpServletRequestBuilders.post("/hotels/{id}", 1)
+                .param("foo", "bar")
+                .header("foo", "bar")
+                .requestAttr("foo", "bar")
+                .body("Hello".getBytes("UTF-8"))
+                .freeze();
+
+        MockHttpServletRequest request = prototype.buildRequest(servletContext);
+        assertEquals("POST", request.getMethod());
+        assertEquals("/hotels/1", request.getRequestURI());
+        assertEquals("bar", request.getParameter("foo"));
+        assertEquals("bar", request.getHeader("foo"));
+        assertEquals("bar", request.getAttribute("foo"));
+        assertArrayEquals("Hello".getBytes("UTF-8"), FileCopyUtils.copyToByteArray(request.getInputStream()));
+
+        request = prototype.withUriVariables(2).withParam("foo", "baz").withBody("World".getBytes("UTF-8"))
+                .buildRequest(servletContext);
+        assertEquals("/hotels/2", request.getRequestURI());
+        assertEquals("baz", request.getParameter("foo"));
+        assertEquals("bar", request.getHeader("foo"));
+        assertArrayEquals("World".getBytes("UTF-8"), FileCopyUtils.copyToByteArray(request.getInputStream()));
+
+        request = prototype.buildRequest(servletContext);
+        assertEquals("/hotels/1", request.getRequestURI());
+        assertEquals("bar", request.getParameter("foo"));
+    }
+
     @Test
     public void param() {
         builder.param("foo", "bar", "baz");
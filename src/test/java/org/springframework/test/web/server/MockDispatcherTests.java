@@ -16,13 +16,42 @@
 
 package org.springframework.test.web.server;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.matcher.MockRequestMatchers;
+import org.springframework.test.web.server.matcher.MockResponseMatchers;
+import org.springframework.test.web.server.matcher.PerformanceMatchers;
+import org.springframework.test.web.server.metrics.HandlerMetrics;
+import org.springframework.test.web.server.metrics.HandlerMetricsListener;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.RequestToViewNameTranslator;
+import org.springframework.web.servlet.ViewResolver;
 
 import org.junit.Test;
 
@@ -30,6 +59,7 @@ import static org.springframework.test.web.AssertionErrors.assertTrue;
 import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
 import static org.springframework.test.web.server.matcher.HandlerMatchers.handlerMethod;
 import static org.springframework.test.web.server.matcher.MvcResultMatchers.*;
+import static org.springframework.test.web.server.matcher.PerformanceMatchers.*;
 import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
 
 /**
@@ -60,12 +90,8 @@ public class MockDispatcherTests {
 				.andExpect(status(200))
 				.andExpect(handlerMethod(TestController.class, "exception", boolean.class))
 				.andExpect(new MvcResultMatcher() {
-                    public void match(MockHttpServletRequest rq,
-                                      MockHttpServletResponse rs,
-                                      Object h,
-                                      Exception e,
-                                      ModelAndView mav) {
-                        assertTrue("ModelAndView should be null", mav == null);
+                    public void match(MvcResult result) {
+                        assertTrue("ModelAndView should be null", result.getModelAndView() == null);
                     }
                 });
 
@@ -76,6 +102,475 @@ public class MockDispatcherTests {
 				.andExpect(responseBody("Ok"));
 	}
 	
+	@Test
+	public void concurrentDispatch() throws Exception {
+		final MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<MvcResult>> futures = new ArrayList<Future<MvcResult>>();
+			for (int i = 0; i < 200; i++) {
+				final String value = String.valueOf(i);
+				futures.add(executor.submit(new Callable<MvcResult>() {
+					public MvcResult call() {
+						return mockMvc.perform(get("/echo").param("value", value)).andReturn();
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				MvcResult result = futures.get(i).get();
+				status(200).match(result);
+				responseBody(String.valueOf(i)).match(result);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void performAll() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		List<MockHttpServletRequestBuilder> requests = new ArrayList<MockHttpServletRequestBuilder>();
+		for (int i = 0; i < 100; i++) {
+			requests.add(get("/echo").param("value", String.valueOf(i)));
+		}
+		
+		List<MvcResult> results = mockMvc.performAll(requests);
+		
+		assertTrue("Expected 100 results", results.size() == 100);
+		for (int i = 0; i < results.size(); i++) {
+			responseBody(String.valueOf(i)).match(results.get(i));
+		}
+	}
+
+	@Test
+	public void deferredExpectations() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		MvcResult first = mockMvc.perform(get("/exception").param("succeed", "true")).andReturn();
+		MvcResult second = mockMvc.perform(get("/exception").param("succeed", "false")).andReturn();
+
+		assertTrue("Handler exception expected", second.getHandlerException() instanceof IllegalStateException);
+		responseBody("Ok").match(first);
+		responseBody("Exception handled").match(second);
+		handlerMethod("exception").match(first);
+	}
+
+	@Test
+	public void timings() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+		
+		MvcResult result = mockMvc.perform(get("/exception").param("succeed", "true"))
+			.andExpect(dispatchTimeLessThan(10, TimeUnit.SECONDS))
+			.andExpect(phaseTimeLessThan(DispatchPhase.HANDLER_INVOCATION, 10, TimeUnit.SECONDS))
+			.andExpect(completedWithin(10, TimeUnit.SECONDS))
+			.andExpect(handledWithin(10, TimeUnit.SECONDS))
+			.andExpect(renderedWithin(10, TimeUnit.SECONDS))
+			.andReturn();
+
+		DispatchTimings timings = result.getTimings();
+		assertTrue("Total time expected", timings.getTotalTime() > 0);
+		assertTrue("Handler invocation time expected", timings.getPhaseTime(DispatchPhase.HANDLER_INVOCATION) > 0);
+		assertTrue("Handler invocation within total time", 
+				timings.getPhaseTime(DispatchPhase.HANDLER_INVOCATION) <= timings.getTotalTime());
+		assertTrue("No rendering expected", timings.getPhaseTime(DispatchPhase.VIEW_RENDERING) == 0);
+	}
+
+	@Test(expected=AssertionError.class)
+	public void latencyBudgetExceeded() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+		mockMvc.perform(get("/exception").param("succeed", "true")).andExpect(completedWithin(0, TimeUnit.NANOSECONDS));
+	}
+
+	@Test
+	public void latencyBudgetIncludesLimit() {
+		long[] phaseTimes = new long[DispatchPhase.values().length];
+		phaseTimes[DispatchPhase.HANDLER_INVOCATION.ordinal()] = 2000000;
+		phaseTimes[DispatchPhase.VIEW_RENDERING.ordinal()] = 1000000;
+		DispatchTimings timings = new DispatchTimings(5000000, phaseTimes, null, null, null);
+		MvcResult result = new DefaultMvcResult(new MockHttpServletRequest(), new MockHttpServletResponse(), 
+				null, null, null, null, timings, -1);
+
+		completedWithin(5, TimeUnit.MILLISECONDS).match(result);
+		handledWithin(2, TimeUnit.MILLISECONDS).match(result);
+		renderedWithin(1, TimeUnit.MILLISECONDS).match(result);
+	}
+
+	@Test(expected=AssertionError.class)
+	public void latencyBudgetLessThanExcludesLimit() {
+		DispatchTimings timings = new DispatchTimings(5000000, new long[DispatchPhase.values().length], 
+				null, null, null);
+		MvcResult result = new DefaultMvcResult(new MockHttpServletRequest(), new MockHttpServletResponse(), 
+				null, null, null, null, timings, -1);
+
+		dispatchTimeLessThan(5, TimeUnit.MILLISECONDS).match(result);
+	}
+
+	@Test
+	public void allocatedBytes() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		MvcResult result = mockMvc.perform(get("/echo").param("value", "allocate")).andReturn();
+
+		if (AllocationCounter.isSupported()) {
+			assertTrue("Allocated bytes expected", result.getAllocatedBytes() > 0);
+			PerformanceMatchers.allocatedLessThan(Long.MAX_VALUE).match(result);
+		}
+		else {
+			assertTrue("Unsupported allocation measurement expected", result.getAllocatedBytes() == -1);
+		}
+	}
+
+	@Test
+	public void handlerLookupCache() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).enableHandlerLookupCache(10).build();
+		
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/path/one")).andExpect(status(200)).andExpect(responseBody("one"));
+			mockMvc.perform(get("/path/two")).andExpect(status(200)).andExpect(responseBody("two"));
+			mockMvc.perform(get("/echo").param("value", "three")).andExpect(responseBody("three"));
+			mockMvc.perform(get("/unknown")).andExpect(status(404));
+		}
+	}
+
+	@Test
+	public void handlerLookupCacheHit() throws Exception {
+		final List<String> lookups = new ArrayList<String>();
+		HandlerMapping mapping = new HandlerMapping() {
+			public HandlerExecutionChain getHandler(HttpServletRequest request) {
+				lookups.add(request.getRequestURI());
+				if (!request.getRequestURI().equals("/mapped")) {
+					return null;
+				}
+				request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "/mapped");
+				return new HandlerExecutionChain("handler");
+			}
+		};
+		List<HandlerMapping> mappings = Collections.singletonList(mapping);
+		HandlerLookupCache cache = new HandlerLookupCache(10);
+
+		HandlerExecutionChain chain = cache.getHandler(new MockHttpServletRequest("GET", "/mapped"), mappings);
+		assertTrue("Expected 1 cached lookup", cache.size() == 1);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mapped");
+		assertTrue("Expected cached chain", cache.getHandler(request, mappings) == chain);
+		assertTrue("Expected replayed attribute", 
+				"/mapped".equals(request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)));
+
+		assertTrue("Expected no handler", cache.getHandler(new MockHttpServletRequest("GET", "/unknown"), mappings) == null);
+		assertTrue("Expected no handler", cache.getHandler(new MockHttpServletRequest("GET", "/unknown"), mappings) == null);
+		assertTrue("Expected 2 cached lookups", cache.size() == 2);
+		assertTrue("Expected one lookup per distinct request", lookups.equals(Arrays.asList("/mapped", "/unknown")));
+
+		cache.getHandler(new MockHttpServletRequest("POST", "/mapped"), mappings);
+		assertTrue("Expected a lookup for another method", lookups.size() == 3);
+	}
+
+	@Test
+	public void handlerAdapterCache() throws Exception {
+		CountingHandlerAdapter adapterA = new CountingHandlerAdapter(HandlerA.class);
+		CountingHandlerAdapter adapterB = new CountingHandlerAdapter(HandlerB.class, HandlerMethod.class);
+		MockDispatcher dispatcher = new MockDispatcher(new TestMvcSetup(adapterA, adapterB), 
+				Collections.<MockMvcListener>emptyList());
+		dispatcher.setHandlerAdapterCache(new ConcurrentLruCache<Object, HandlerAdapter>(10));
+
+		dispatchTo(dispatcher, new HandlerA());
+		dispatchTo(dispatcher, new HandlerA());
+		assertTrue("Expected adapter A for both handlers", adapterA.handleCount == 2);
+		assertTrue("Expected cached adapter for the same handler class", adapterA.supportsCount == 1);
+
+		dispatchTo(dispatcher, new HandlerB());
+		dispatchTo(dispatcher, new HandlerB());
+		assertTrue("Expected adapter B for another handler type", adapterB.handleCount == 2);
+		assertTrue("Expected cached adapter for the same handler class", adapterB.supportsCount == 1);
+
+		Method method = TestController.class.getMethod("echo", String.class);
+		dispatchTo(dispatcher, new HandlerMethod(new TestController(), method));
+		dispatchTo(dispatcher, new HandlerMethod(new TestController(), method));
+		assertTrue("Expected adapter B for handler methods", adapterB.handleCount == 4);
+		assertTrue("Expected cached adapter for the same method", adapterB.supportsCount == 2);
+		assertTrue("Expected adapter A to be asked once per handler type", adapterA.supportsCount == 3);
+	}
+
+	@Test
+	public void handlerAdapterCacheDisabledAndBounded() throws Exception {
+		CountingHandlerAdapter adapterA = new CountingHandlerAdapter(HandlerA.class);
+		CountingHandlerAdapter adapterB = new CountingHandlerAdapter(HandlerB.class);
+		MockDispatcher dispatcher = new MockDispatcher(new TestMvcSetup(adapterA, adapterB), 
+				Collections.<MockMvcListener>emptyList());
+
+		dispatchTo(dispatcher, new HandlerA());
+		dispatchTo(dispatcher, new HandlerA());
+		assertTrue("Expected no caching by default", adapterA.supportsCount == 2);
+
+		dispatcher.setHandlerAdapterCache(new ConcurrentLruCache<Object, HandlerAdapter>(1));
+		dispatchTo(dispatcher, new HandlerA());
+		dispatchTo(dispatcher, new HandlerB());
+		dispatchTo(dispatcher, new HandlerA());
+		assertTrue("Expected the evicted handler class to be looked up again", adapterA.supportsCount == 5);
+	}
+
+	private static void dispatchTo(MockDispatcher dispatcher, Object handler) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.setAttribute(TestMvcSetup.HANDLER_ATTRIBUTE, handler);
+		dispatcher.dispatch(request, new MockHttpServletResponse(), false);
+	}
+
+	@Test
+	public void recycledResponses() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build().setRecycleResponses(true);
+
+		MvcResult first = mockMvc.perform(get("/echo").param("value", "first"))
+			.andExpect(status(200)).andExpect(responseBody("first")).andReturn();
+
+		mockMvc.perform(get("/unknown")).andExpect(status(404));
+
+		MvcResult last = mockMvc.perform(get("/echo").param("value", "second"))
+			.andExpect(status(200)).andExpect(responseBody("second")).andReturn();
+
+		assertTrue("Response expected to be recycled", first.getResponse() == last.getResponse());
+	}
+
+	@Test
+	public void responseBodyDecodedOnce() throws Exception {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		MvcResult result = mockMvc.perform(get("/echo").param("value", "body"))
+			.andExpect(responseBody("body"))
+			.andExpect(responseBodyContains("od"))
+			.andReturn();
+
+		assertTrue("Decoded body expected to be shared", result.getResponseBody() == result.getResponseBody());
+	}
+
+	@Test
+	public void headerAndAttributeMapsBuiltOnce() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		MvcResult result = mockMvc.perform(get("/echo").param("value", "maps").header("foo", "bar"))
+			.andExpect(MockRequestMatchers.requestAttributesNotPresent("foo"))
+			.andExpect(MockResponseMatchers.headersPresent("Content-Type"))
+			.andReturn();
+
+		assertTrue("Request headers expected", "bar".equals(result.getRequestHeaders().get("foo")));
+		assertTrue("Request headers expected to be shared", result.getRequestHeaders() == result.getRequestHeaders());
+		assertTrue("Response headers expected to be shared", result.getResponseHeaders() == result.getResponseHeaders());
+	}
+
+	@Test
+	public void handlerMetricsListener() {
+		HandlerMetricsListener listener = new HandlerMetricsListener();
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).addListeners(listener).build();
+		
+		mockMvc.perform(get("/exception").param("succeed", "true"));
+		mockMvc.perform(get("/exception").param("succeed", "true"));
+		mockMvc.perform(get("/exception").param("succeed", "false"));
+		mockMvc.perform(get("/unknown"));
+
+		HandlerMetrics metrics = listener.getMetrics(TestController.class.getName() + "#exception");
+		assertTrue("Expected 3 calls", metrics.getCallCount() == 3);
+		assertTrue("Expected 1 error", metrics.getErrorCount() == 1);
+		assertTrue("Expected time", metrics.getTotalTime() > 0);
+		assertTrue("Expected 1 unmapped request", 
+				listener.getMetrics(HandlerMetricsListener.NO_HANDLER).getCallCount() == 1);
+	}
+
+	@Test
+	public void handlerMetricsListenerWithOverloadedMethods() {
+		HandlerMetricsListener listener = new HandlerMetricsListener();
+		MockMvc mockMvc = standaloneMvcSetup(new OverloadingController()).addListeners(listener).build();
+		
+		mockMvc.perform(get("/repeat").param("value", "a")).andExpect(responseBody("a"));
+		mockMvc.perform(get("/repeat").param("value", "a").param("times", "2")).andExpect(responseBody("aa"));
+		mockMvc.perform(get("/repeat").param("value", "a").param("times", "3")).andExpect(responseBody("aaa"));
+
+		String name = OverloadingController.class.getName() + "#repeat";
+		assertTrue("Expected 1 call", listener.getMetrics(name + "(String)").getCallCount() == 1);
+		assertTrue("Expected 2 calls", listener.getMetrics(name + "(String,int)").getCallCount() == 2);
+		assertTrue("Expected 2 handlers", listener.getMetrics().size() == 2);
+	}
+
+	@Test
+	public void handlerMetricsListenerWithInheritedMethod() {
+		HandlerMetricsListener listener = new HandlerMetricsListener();
+		MockMvc mockMvc = standaloneMvcSetup(new HotelController(), new BookingController())
+				.addListeners(listener).build();
+
+		mockMvc.perform(get("/hotels/ping")).andExpect(responseBody("pong"));
+		mockMvc.perform(get("/bookings/ping")).andExpect(responseBody("pong"));
+		mockMvc.perform(get("/bookings/ping")).andExpect(responseBody("pong"));
+
+		String hotelName = HotelController.class.getName() + "#ping";
+		String bookingName = BookingController.class.getName() + "#ping";
+		assertTrue("Expected 1 call", listener.getMetrics(hotelName).getCallCount() == 1);
+		assertTrue("Expected 2 calls", listener.getMetrics(bookingName).getCallCount() == 2);
+		assertTrue("Expected 2 handlers", listener.getMetrics().size() == 2);
+	}
+
+	@Test
+	public void warmUp() {
+		HandlerMetricsListener listener = new HandlerMetricsListener();
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).addListeners(listener).build();
+		
+		int rounds = mockMvc.warmUp(Arrays.asList(get("/echo").param("value", "a"), get("/path/b")), 10);
+		assertTrue("Expected at least one round", rounds >= 1);
+
+		String handlerName = TestController.class.getName() + "#echo";
+		assertTrue("Expected metrics to be reset", listener.getMetrics(handlerName).getCallCount() == 0);
+
+		mockMvc.perform(get("/echo").param("value", "a")).andExpect(responseBody("a"));
+		assertTrue("Expected 1 call", listener.getMetrics(handlerName).getCallCount() == 1);
+	}
+
+	@Test
+	public void warmUpRoundsAndNotification() {
+		WarmUpListener listener = new WarmUpListener();
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).addListeners(listener).build();
+
+		int rounds = mockMvc.warmUp(Arrays.asList(get("/path/b")), 1);
+		assertTrue("Expected between 1 and 20 rounds but was " + rounds, rounds >= 1 && rounds <= 20);
+		assertTrue("Expected 1 warm-up notification", listener.warmUpCount == 1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void warmUpWithoutIterations() {
+		standaloneMvcSetup(new TestController()).build().warmUp(Arrays.asList(get("/path/b")), 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void warmUpWithoutRequests() {
+		List<MockHttpServletRequestBuilder> requestBuilders = Collections.emptyList();
+		standaloneMvcSetup(new TestController()).build().warmUp(requestBuilders, 10);
+	}
+
+	private static class WarmUpListener extends MockMvcListenerAdapter {
+
+		private int warmUpCount;
+
+		@Override
+		public void warmUpCompleted() {
+			warmUpCount++;
+		}
+	}
+
+	private static class HandlerA {
+	}
+
+	private static class HandlerB {
+	}
+
+	private static class CountingHandlerAdapter implements HandlerAdapter {
+
+		private final Class<?>[] handlerTypes;
+
+		private int supportsCount;
+
+		private int handleCount;
+
+		public CountingHandlerAdapter(Class<?>... handlerTypes) {
+			this.handlerTypes = handlerTypes;
+		}
+
+		public boolean supports(Object handler) {
+			supportsCount++;
+			for (Class<?> handlerType : handlerTypes) {
+				if (handlerType.isInstance(handler)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public ModelAndView handle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+			handleCount++;
+			return null;
+		}
+
+		public long getLastModified(HttpServletRequest request, Object handler) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Maps every request to the handler in the {@link #HANDLER_ATTRIBUTE} request attribute.
+	 */
+	private static class TestMvcSetup implements MvcSetup {
+
+		static final String HANDLER_ATTRIBUTE = TestMvcSetup.class.getName() + ".handler";
+
+		private final List<HandlerAdapter> handlerAdapters;
+
+		public TestMvcSetup(HandlerAdapter... handlerAdapters) {
+			this.handlerAdapters = Arrays.asList(handlerAdapters);
+		}
+
+		public List<HandlerMapping> getHandlerMappings() {
+			HandlerMapping mapping = new HandlerMapping() {
+				public HandlerExecutionChain getHandler(HttpServletRequest request) {
+					return new HandlerExecutionChain(request.getAttribute(HANDLER_ATTRIBUTE));
+				}
+			};
+			return Collections.singletonList(mapping);
+		}
+
+		public List<HandlerAdapter> getHandlerAdapters() {
+			return handlerAdapters;
+		}
+
+		public List<HandlerExceptionResolver> getExceptionResolvers() {
+			return Collections.emptyList();
+		}
+
+		public List<ViewResolver> getViewResolvers() {
+			return Collections.emptyList();
+		}
+
+		public RequestToViewNameTranslator getViewNameTranslator() {
+			return null;
+		}
+
+		public LocaleResolver getLocaleResolver() {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unused")
+	@Controller
+	private static class OverloadingController {
+
+		@RequestMapping("/repeat")
+		public @ResponseBody String repeat(@RequestParam String value) {
+			return value;
+		}
+
+		@RequestMapping(value = "/repeat", params = "times")
+		public @ResponseBody String repeat(@RequestParam String value, @RequestParam int times) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < times; i++) {
+				sb.append(value);
+			}
+			return sb.toString();
+		}
+	}
+
+	private static class PingController {
+
+		@RequestMapping("/ping")
+		public @ResponseBody String ping() {
+			return "pong";
+		}
+	}
+
+	@RequestMapping("/hotels")
+	private static class HotelController extends PingController {
+	}
+
+	@RequestMapping("/bookings")
+	private static class BookingController extends PingController {
+	}
+
 	@SuppressWarnings("unused")
 	@Controller
 	private static class TestController {
@@ -90,6 +585,16 @@ public class MockDispatcherTests {
 			}
 		}
 
+		@RequestMapping("/echo")
+		public @ResponseBody String echo(@RequestParam String value) {
+			return value;
+		}
+
+		@RequestMapping("/path/{value}")
+		public @ResponseBody String path(@PathVariable String value) {
+			return value;
+		}
+
 		@ExceptionHandler
 		public @ResponseBody String handle(IllegalStateException e) {
 			return "Exception handled";
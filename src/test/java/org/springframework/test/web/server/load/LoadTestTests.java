@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockHttpServletRequestBuilder;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
+
+/**
+ * {@link LoadTest} and {@link LatencyHistogram} test fixture.
+ *
+ */
+public class LoadTestTests {
+
+	@Test
+	public void histogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 10000; value++) {
+			histogram.recordValue(value * 1000);
+		}
+		
+		assertEquals(10000, histogram.getTotalCount());
+		assertEquals(1000, histogram.getMinValue());
+		assertEquals(10000000, histogram.getMaxValue());
+		assertWithinPrecision(5000000, histogram.getValueAtPercentile(50));
+		assertWithinPrecision(9900000, histogram.getValueAtPercentile(99));
+		assertEquals(10000000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void closedLoop() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		LoadTestResult result = mockMvc.loadTest(get("/hotels/{id}", 1), get("/hotels/{id}", 2), get("/error"))
+			.virtualUsers(4)
+			.iterations(30)
+			.run();
+
+		assertEquals(2, result.getEndpoints().size());
+		assertEquals(80, result.getHistogram("GET /hotels/{id}").getTotalCount());
+		assertEquals(40, result.getErrorCount("GET /error"));
+		assertTrue(result.getThroughput() > 0);
+	}
+
+	@Test
+	public void constantRate() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+
+		LoadTestResult result = mockMvc.constantRateLoadTest(200, get("/hotels/{id}", 1))
+			.duration(500, TimeUnit.MILLISECONDS)
+			.run();
+
+		LatencyHistogram latencies = result.getHistogram("GET /hotels/{id}");
+		LatencyHistogram serviceTimes = result.getServiceTimeHistogram("GET /hotels/{id}");
+		assertEquals(100, latencies.getTotalCount());
+		assertEquals(100, serviceTimes.getTotalCount());
+		assertTrue(latencies.getMaxValue() >= serviceTimes.getMaxValue());
+	}
+
+	@Test
+	public void constantRateWithRequestCollection() {
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).build();
+		List<MockHttpServletRequestBuilder> requestBuilders = new ArrayList<MockHttpServletRequestBuilder>();
+		for (int id = 1; id <= 10; id++) {
+			requestBuilders.add(get("/hotels/{id}", id));
+		}
+
+		LoadTestResult result = mockMvc.constantRateLoadTest(200, requestBuilders)
+			.duration(500, TimeUnit.MILLISECONDS)
+			.run();
+
+		assertEquals(100, result.getHistogram("GET /hotels/{id}").getTotalCount());
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue("Expected " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 50);
+	}
+
+	@Controller
+	private static class TestController {
+
+		@RequestMapping("/hotels/{id}")
+		public @ResponseBody String hotel(@PathVariable int id) {
+			return "Hotel " + id;
+		}
+
+		@RequestMapping("/error")
+		public @ResponseBody String error() {
+			throw new IllegalStateException("Unhandled");
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.util.Collections;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
+import static org.springframework.test.web.server.matcher.MvcResultMatchers.*;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigMvcSetup;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.xmlConfigMvcSetup;
+
+/**
+ * Tests with a {@link ConfigurableContextMockMvcBuilder}.
+ * 
+ */
+public class ConfigurableContextSetupTests {
+
+	private static final String XML_CONFIG = "classpath:org/springframework/test/web/server/setup/lazy-init-context.xml";
+
+	@Before
+	public void setup() {
+		TestController.created = 0;
+		TestService.created = 0;
+		XmlController.created = 0;
+		LegacyController.created = 0;
+	}
+
+	@Test
+	public void lazyInitBeans() {
+		MockMvc mockMvc = annotationConfigMvcSetup(TestConfiguration.class).lazyInitBeans().build();
+
+		assertEquals(0, TestController.created);
+		assertEquals(0, TestService.created);
+
+		mockMvc.perform(get("/path")).andExpect(status(200)).andExpect(responseBody("ok"));
+		mockMvc.perform(get("/path")).andExpect(status(200)).andExpect(responseBody("ok"));
+
+		assertEquals(1, TestController.created);
+		assertEquals(0, TestService.created);
+	}
+
+	@Test
+	public void lazyInitBeansWithEagerType() {
+		annotationConfigMvcSetup(TestConfiguration.class).lazyInitBeans(TestService.class).build();
+
+		assertEquals(0, TestController.created);
+		assertEquals(1, TestService.created);
+	}
+
+	@Test
+	public void lazyInitBeansWithUrlHandlerMappings() {
+		MockMvc mockMvc = xmlConfigMvcSetup(XML_CONFIG).lazyInitBeans().build();
+
+		assertEquals(0, XmlController.created);
+		assertEquals(0, LegacyController.created);
+
+		mockMvc.perform(get("/xml")).andExpect(status(200)).andExpect(responseBody("xml"));
+		mockMvc.perform(get("/legacy")).andExpect(status(200)).andExpect(responseBody("legacy"));
+
+		assertEquals(1, XmlController.created);
+		assertEquals(1, LegacyController.created);
+		assertEquals(0, TestService.created);
+	}
+
+	@Test
+	public void lazyInitBeansWithEagerFactoryBeanObjectType() {
+		ContextCapture capture = new ContextCapture();
+		xmlConfigMvcSetup(XML_CONFIG).applyInitializers(capture).lazyInitBeans(TestService.class).build();
+
+		ConfigurableListableBeanFactory beanFactory = capture.context.getBeanFactory();
+		assertFalse(beanFactory.getBeanDefinition("testServiceFactory").isLazyInit());
+		assertTrue(beanFactory.getBeanDefinition("xmlController").isLazyInit());
+	}
+
+	@Test
+	public void lazyInitBeansWithFactoryBeanTypedByProperty() {
+		ContextCapture capture = new ContextCapture();
+		xmlConfigMvcSetup(XML_CONFIG).applyInitializers(capture).lazyInitBeans().build();
+
+		TypedFactoryBean factoryBean = (TypedFactoryBean) capture.context.getBean("&typedFactory");
+		assertNotNull("Expected the FactoryBean to be post-processed", factoryBean.applicationContext);
+	}
+
+	@Test
+	public void startupReportWithLazyInitBeans() {
+		MockMvc mockMvc = annotationConfigMvcSetup(TestConfiguration.class)
+			.lazyInitBeans().recordStartupReport().build();
+		mockMvc.perform(get("/path")).andExpect(status(200));
+
+		assertFalse(mockMvc.getStartupReport().getBeanTimes().containsKey("testController"));
+	}
+
+	@Test
+	public void beanCreationTimerStopped() {
+		BeanCreationTimer timer = new BeanCreationTimer();
+		timer.postProcessBeforeInstantiation(TestService.class, "before");
+		timer.postProcessAfterInitialization(new TestService(), "before");
+		timer.stop();
+		timer.postProcessBeforeInstantiation(TestService.class, "after");
+		timer.postProcessAfterInitialization(new TestService(), "after");
+
+		assertEquals(Collections.singleton("before"), timer.getCreationTimes().keySet());
+	}
+
+	@Controller
+	static class TestController {
+
+		static int created;
+
+		public TestController() {
+			created++;
+		}
+
+		@RequestMapping("/path")
+		public @ResponseBody String handle() {
+			return "ok";
+		}
+	}
+
+	static class TestService {
+
+		static int created;
+
+		public TestService() {
+			created++;
+		}
+	}
+
+	@Controller
+	static class XmlController {
+
+		static int created;
+
+		public XmlController() {
+			created++;
+		}
+
+		@RequestMapping("/xml")
+		public @ResponseBody String handle() {
+			return "xml";
+		}
+	}
+
+	static class LegacyController implements org.springframework.web.servlet.mvc.Controller {
+
+		static int created;
+
+		public LegacyController() {
+			created++;
+		}
+
+		public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response) 
+				throws Exception {
+			response.getWriter().write("legacy");
+			return null;
+		}
+	}
+
+	static class TestServiceFactoryBean implements FactoryBean<TestService> {
+
+		public TestService getObject() {
+			return new TestService();
+		}
+
+		public Class<?> getObjectType() {
+			return TestService.class;
+		}
+
+		public boolean isSingleton() {
+			return true;
+		}
+	}
+
+	static class TypedFactoryBean implements FactoryBean<Object> {
+
+		@Autowired
+		private ApplicationContext applicationContext;
+
+		private Class<?> objectType;
+
+		public void setObjectType(Class<?> objectType) {
+			this.objectType = objectType;
+		}
+
+		public Object getObject() {
+			return "typed";
+		}
+
+		public Class<?> getObjectType() {
+			return objectType;
+		}
+
+		public boolean isSingleton() {
+			return true;
+		}
+	}
+
+	static class ContextCapture implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
+
+		private ConfigurableWebApplicationContext context;
+
+		public void initialize(ConfigurableWebApplicationContext applicationContext) {
+			this.context = applicationContext;
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class TestConfiguration {
+
+		@Bean
+		public TestController testController() {
+			return new TestController();
+		}
+
+		@Bean
+		public TestService testService() {
+			return new TestService();
+		}
+	}
+
+}
@@ -16,13 +16,24 @@
 
 package org.springframework.test.web.server.setup;
 
+import java.util.Arrays;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockServletContext;
 import org.springframework.stereotype.Controller;
 import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.StartupReport;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
 import static org.springframework.test.web.server.matcher.MvcResultMatchers.*;
 import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
@@ -40,6 +51,78 @@ public class StandaloneSetupTests {
 				.andExpect(responseBody("Mapped by path!"));
 	}	
 
+	@Test
+	public void controllerInstancePerBuild() throws Exception {
+		
+		for (int i = 0; i < 2; i++) {
+			MockMvc mockMvc = standaloneMvcSetup(new CountingController()).build();
+			
+			mockMvc.perform(get("/count")).andExpect(responseBody("1"));
+			mockMvc.perform(get("/count")).andExpect(responseBody("2"));
+		}
+	}	
+
+	@Test
+	public void sharedApplicationContext() throws Exception {
+		
+		GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+		context.refresh();
+
+		for (int i = 0; i < 2; i++) {
+			standaloneMvcSetup(new TestController()).setApplicationContext(context).build()
+				.perform(get("/path"))
+					.andExpect(status(200))
+					.andExpect(responseBody("Mapped by path!"));
+		}
+	}	
+
+	@Test
+	public void sharedInfrastructure() throws Exception {
+		
+		StandaloneMvcInfrastructure infrastructure = new StandaloneMvcInfrastructure();
+		for (int i = 0; i < 2; i++) {
+			standaloneMvcSetup(new TestController()).setSharedInfrastructure(infrastructure).build()
+				.perform(get("/path"))
+					.andExpect(status(200))
+					.andExpect(responseBody("Mapped by path!"));
+		}
+		assertEquals(1, infrastructure.getRequestMappings().size());
+
+		ConfigurableApplicationContext context = (ConfigurableApplicationContext) infrastructure.getApplicationContext();
+		infrastructure.close();
+		assertFalse(context.isActive());
+		assertTrue(infrastructure.getRequestMappings().isEmpty());
+	}	
+
+	@Test
+	public void parallelInitialization() throws Exception {
+		
+		MockMvc mockMvc = standaloneMvcSetup(new TestController())
+				.initializeInParallel()
+				.addInterceptors(new HandlerInterceptorAdapter() {})
+				.build();
+		
+		mockMvc.perform(get("/path"))
+				.andExpect(status(200))
+				.andExpect(responseBody("Mapped by path!"));
+	}	
+
+	@Test
+	public void startupReport() throws Exception {
+		
+		MockMvc mockMvc = standaloneMvcSetup(new TestController()).recordStartupReport().build();
+		
+		StartupReport report = mockMvc.getStartupReport();
+		assertTrue(report.getStepTimes().keySet().containsAll(Arrays.asList("initApplicationContext", 
+				"initHandlerMappings", "initHandlerAdapters", "initHandlerExceptionResolvers", 
+				"initViewResolvers", "initViewNameTranslator", "initLocaleResolver")));
+		assertTrue(report.getBeanTimes().isEmpty());
+		assertTrue(report.toTable().contains("initHandlerMappings"));
+		assertTrue(report.toJson().startsWith("{\"totalTime\":" + report.getTotalTime() + ",\"steps\":[{"));
+
+		assertNull(standaloneMvcSetup(new TestController()).build().getStartupReport());
+	}	
+
 	@Controller
 	class TestController {
 
@@ -49,4 +132,15 @@ public class StandaloneSetupTests {
 		}
 	}
 
+	@Controller
+	class CountingController {
+
+		private int count;
+
+		@RequestMapping("/count")
+		public @ResponseBody String count() {
+			return String.valueOf(++count);
+		}
+	}
+
 }
@@ -19,15 +19,22 @@ package org.springframework.test.web.server.setup;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.oxm.xstream.XStreamMarshaller;
 import org.springframework.stereotype.Controller;
 import org.springframework.test.web.server.MockMvc;
+import org.springframework.test.web.server.MockMvcListenerAdapter;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
 import org.springframework.web.servlet.view.InternalResourceView;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
@@ -36,6 +43,8 @@ import org.springframework.web.servlet.view.xml.MarshallingView;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
 import static org.springframework.test.web.server.matcher.MvcResultMatchers.*;
 import static org.springframework.test.web.server.setup.MockMvcBuilders.standaloneMvcSetup;
@@ -70,6 +79,63 @@ public class ViewResolverStandaloneSetupTests {
 	@Test
 	public void contentNegotiatingViewResolver() throws Exception {
 		
+		MockMvc mockMvc = contentNegotiatingSetup().build();
+		performContentNegotiation(mockMvc);
+	}
+
+	@Test
+	public void contentNegotiatingViewResolverWithViewCache() throws Exception {
+		
+		MockMvc mockMvc = contentNegotiatingSetup().enableViewCache(10).build();
+		performContentNegotiation(mockMvc);
+		performContentNegotiation(mockMvc);
+	}
+
+	@Test
+	public void viewCache() throws Exception {
+		
+		CountingViewResolver nonResolvingResolver = new CountingViewResolver(false);
+		CountingViewResolver resolvingResolver = new CountingViewResolver(true);
+		RenderedViews renderedViews = new RenderedViews();
+
+		MockMvc mockMvc = standaloneMvcSetup(new TestController())
+			.addListeners(renderedViews)
+			.enableViewCache(10)
+			.setViewResolvers(nonResolvingResolver, resolvingResolver)
+			.build();
+
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/path")).andExpect(status(200));
+		}
+
+		assertEquals("Expected the missing view to be cached", 1, nonResolvingResolver.count);
+		assertEquals("Expected the resolved view to be cached", 1, resolvingResolver.count);
+		assertEquals(3, renderedViews.views.size());
+		assertSame(renderedViews.views.get(0), renderedViews.views.get(1));
+		assertSame(renderedViews.views.get(0), renderedViews.views.get(2));
+	}
+
+	@Test
+	public void viewCacheWithDynamicResolver() throws Exception {
+		
+		CountingViewResolver dynamicResolver = new DynamicViewResolver();
+		CountingViewResolver resolvingResolver = new CountingViewResolver(true);
+
+		MockMvc mockMvc = standaloneMvcSetup(new TestController())
+			.enableViewCache(10, DynamicViewResolver.class)
+			.setViewResolvers(dynamicResolver, resolvingResolver)
+			.build();
+
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/path")).andExpect(status(200));
+		}
+
+		assertEquals("Expected the dynamic resolver to be called every time", 3, dynamicResolver.count);
+		assertEquals("Expected the resolved view to be cached", 1, resolvingResolver.count);
+	}
+
+	private StandaloneMockMvcBuilder contentNegotiatingSetup() {
+		
 		InternalResourceViewResolver internalResourceViewResolver = new InternalResourceViewResolver();
 		internalResourceViewResolver.setViewClass(InternalResourceView.class);
 
@@ -86,9 +152,11 @@ public class ViewResolverStandaloneSetupTests {
 		viewResolver.setMediaTypes(mediaTypes);
 		viewResolver.setDefaultContentType(MediaType.TEXT_HTML);
 		
-		MockMvc mockMvc = standaloneMvcSetup(new TestController())
-			.setViewResolvers(viewResolver, internalResourceViewResolver)
-			.build();
+		return standaloneMvcSetup(new TestController())
+			.setViewResolvers(viewResolver, internalResourceViewResolver);
+	}
+
+	private void performContentNegotiation(MockMvc mockMvc) {
 
 		mockMvc.perform(get("/path.json"))
 				.andExpect(status(200))
@@ -105,6 +173,51 @@ public class ViewResolverStandaloneSetupTests {
 				.andExpect(forwardedUrl("fruitsAndVegetables"));
 	}
 
+	/**
+	 * Returns a new view for every call, or no view at all.
+	 */
+	private static class CountingViewResolver implements ViewResolver {
+
+		private final boolean resolve;
+
+		private int count;
+
+		public CountingViewResolver(boolean resolve) {
+			this.resolve = resolve;
+		}
+
+		public synchronized View resolveViewName(String viewName, Locale locale) {
+			count++;
+			if (!resolve) {
+				return null;
+			}
+			return new View() {
+				public String getContentType() {
+					return "text/plain";
+				}
+				public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
+				}
+			};
+		}
+	}
+
+	private static class DynamicViewResolver extends CountingViewResolver {
+
+		public DynamicViewResolver() {
+			super(false);
+		}
+	}
+
+	private static class RenderedViews extends MockMvcListenerAdapter {
+
+		private final List<View> views = new ArrayList<View>();
+
+		@Override
+		public synchronized void viewRendered(MockHttpServletRequest request, View view) {
+			views.add(view);
+		}
+	}
+
 	@Controller
 	public class TestController {
 
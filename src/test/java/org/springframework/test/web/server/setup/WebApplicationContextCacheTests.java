@@ -0,0 +1,284 @@
+/*
+ * Copyright 2002-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.test.web.server.setup;
+
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.web.server.MockMvc;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.ConfigurableWebApplicationContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.server.MockHttpServletRequestBuilders.get;
+import static org.springframework.test.web.server.matcher.MvcResultMatchers.*;
+import static org.springframework.test.web.server.setup.MockMvcBuilders.annotationConfigMvcSetup;
+
+/**
+ * Tests for sharing application contexts through a {@link WebApplicationContextCache}.
+ * 
+ */
+public class WebApplicationContextCacheTests {
+
+	private WebApplicationContextCache contextCache;
+
+	@Before
+	public void setup() {
+		contextCache = new WebApplicationContextCache(2);
+		TestController.created = 0;
+		TestController.destroyed = 0;
+	}
+
+	@Test
+	public void sameConfiguration() {
+		for (int i = 0; i < 3; i++) {
+			MockMvc mockMvc = annotationConfigMvcSetup(TestConfiguration.class)
+				.cacheApplicationContext(contextCache).build();
+			
+			mockMvc.perform(get("/path")).andExpect(status(200)).andExpect(responseBody("ok"));
+		}
+		assertEquals(1, TestController.created);
+		assertEquals(1, contextCache.size());
+	}
+
+	@Test
+	public void eviction() {
+		annotationConfigMvcSetup(TestConfiguration.class).activateProfiles("a").cacheApplicationContext(contextCache).build();
+		annotationConfigMvcSetup(TestConfiguration.class).activateProfiles("b").cacheApplicationContext(contextCache).build();
+		annotationConfigMvcSetup(TestConfiguration.class).activateProfiles("c").cacheApplicationContext(contextCache).build();
+
+		assertEquals(3, TestController.created);
+		assertEquals(1, TestController.destroyed);
+		assertEquals(2, contextCache.size());
+
+		contextCache.clear();
+		assertEquals(3, TestController.destroyed);
+	}
+
+	@Test
+	public void initializersInCacheKey() {
+		annotationConfigMvcSetup(TestConfiguration.class)
+			.applyInitializers(new NamingInitializer("a")).cacheApplicationContext(contextCache).build();
+		annotationConfigMvcSetup(TestConfiguration.class)
+			.applyInitializers(new NamingInitializer("a")).cacheApplicationContext(contextCache).build();
+		assertEquals("Expected equal initializers to share a context", 1, TestController.created);
+
+		annotationConfigMvcSetup(TestConfiguration.class)
+			.applyInitializers(new NamingInitializer("b")).cacheApplicationContext(contextCache).build();
+		assertEquals("Expected initializers with other state to get their own context", 2, TestController.created);
+	}
+
+	@Test
+	public void evictionOnLowMemory() {
+		MemoryPoolMXBean oldGen = memoryPool(true, 90, 100);
+		WebApplicationContextCache cache = new WebApplicationContextCache(5, Arrays.asList(oldGen));
+
+		ConfigurableWebApplicationContext first = (ConfigurableWebApplicationContext) cache.getContext("a", contextFactory());
+		ConfigurableWebApplicationContext second = (ConfigurableWebApplicationContext) cache.getContext("b", contextFactory());
+
+		assertEquals("Expected a context requested since the last check to be kept", 2, cache.size());
+		assertTrue(first.isActive());
+		assertTrue(second.isActive());
+
+		cache.getContext("c", contextFactory());
+		assertEquals(2, cache.size());
+		assertFalse(first.isActive());
+		assertTrue(second.isActive());
+
+		cache.setMemoryThreshold(0.95);
+		cache.getContext("d", contextFactory());
+		assertEquals(3, cache.size());
+		assertTrue(second.isActive());
+	}
+
+	@Test
+	public void survivorSpaceIgnored() {
+		MemoryPoolMXBean survivor = memoryPool(false, 100, 100);
+		WebApplicationContextCache cache = new WebApplicationContextCache(5, Arrays.asList(survivor));
+
+		ConfigurableWebApplicationContext first = (ConfigurableWebApplicationContext) cache.getContext("a", contextFactory());
+		cache.getContext("b", contextFactory());
+
+		assertEquals(2, cache.size());
+		assertTrue(first.isActive());
+	}
+
+	@Test
+	public void noEvictionDuringCreation() throws Exception {
+		final WebApplicationContextCache cache = 
+			new WebApplicationContextCache(1, Arrays.asList(memoryPool(true, 90, 100)));
+		final CountDownLatch creationStarted = new CountDownLatch(1);
+		final CountDownLatch otherCreated = new CountDownLatch(1);
+		final Callable<WebApplicationContext> factory = contextFactory();
+
+		final Callable<WebApplicationContext> blockingFactory = new Callable<WebApplicationContext>() {
+			public WebApplicationContext call() throws Exception {
+				creationStarted.countDown();
+				otherCreated.await();
+				return factory.call();
+			}
+		};
+		FutureTask<WebApplicationContext> creation = new FutureTask<WebApplicationContext>(
+				new Callable<WebApplicationContext>() {
+					public WebApplicationContext call() {
+						return cache.getContext("a", blockingFactory);
+					}
+				});
+		new Thread(creation).start();
+
+		creationStarted.await();
+		ConfigurableWebApplicationContext other = (ConfigurableWebApplicationContext) cache.getContext("b", contextFactory());
+		otherCreated.countDown();
+
+		ConfigurableWebApplicationContext context = (ConfigurableWebApplicationContext) creation.get(10, TimeUnit.SECONDS);
+		assertTrue("Expected the context to be returned active to the creating thread", context.isActive());
+		assertTrue(other.isActive());
+		assertEquals("Expected the context being created to be kept", 2, cache.size());
+	}
+
+	private static Callable<WebApplicationContext> contextFactory() {
+		return new Callable<WebApplicationContext>() {
+			public WebApplicationContext call() {
+				GenericWebApplicationContext context = new GenericWebApplicationContext(new MockServletContext());
+				context.refresh();
+				return context;
+			}
+		};
+	}
+
+	/**
+	 * Create a heap memory pool with the given usage after the last collection.
+	 * @param usageThresholdSupported {@code true} for an old generation pool, {@code false} for eden or survivor
+	 */
+	private static MemoryPoolMXBean memoryPool(final boolean usageThresholdSupported, final long used, final long max) {
+		ClassLoader classLoader = WebApplicationContextCacheTests.class.getClassLoader();
+		return (MemoryPoolMXBean) Proxy.newProxyInstance(classLoader, new Class<?>[] { MemoryPoolMXBean.class }, 
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						String name = method.getName();
+						if (name.equals("getType")) {
+							return MemoryType.HEAP;
+						}
+						if (name.equals("isUsageThresholdSupported")) {
+							return usageThresholdSupported;
+						}
+						if (name.equals("isCollectionUsageThresholdSupported")) {
+							return true;
+						}
+						if (name.equals("getCollectionUsage")) {
+							return new MemoryUsage(0, used, used, max);
+						}
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	@Test
+	public void startupReport() {
+		MockMvc mockMvc = annotationConfigMvcSetup(TestConfiguration.class)
+			.cacheApplicationContext(contextCache).recordStartupReport().build();
+		
+		Map<String, Long> beanTimes = mockMvc.getStartupReport().getBeanTimes();
+		assertTrue(beanTimes.containsKey("testController"));
+		assertTrue(beanTimes.containsKey("requestMappingHandlerMapping"));
+
+		mockMvc = annotationConfigMvcSetup(TestConfiguration.class)
+			.recordStartupReport().cacheApplicationContext(contextCache).build();
+		
+		assertTrue(mockMvc.getStartupReport().getBeanTimes().isEmpty());
+	}
+
+	@Controller
+	static class TestController implements DisposableBean {
+
+		static int created;
+
+		static int destroyed;
+
+		public TestController() {
+			created++;
+		}
+
+		@RequestMapping("/path")
+		public @ResponseBody String handle() {
+			return "ok";
+		}
+
+		public void destroy() {
+			destroyed++;
+		}
+	}
+
+	static class NamingInitializer implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
+
+		private final String name;
+
+		public NamingInitializer(String name) {
+			this.name = name;
+		}
+
+		public void initialize(ConfigurableWebApplicationContext applicationContext) {
+			applicationContext.setDisplayName(name);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return (other instanceof NamingInitializer && name.equals(((NamingInitializer) other).name));
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class TestConfiguration {
+
+		@Bean
+		public TestController testController() {
+			return new TestController();
+		}
+	}
+
+}